@@ -0,0 +1,11 @@
+package com.petify.gateway.accesslog;
+
+/**
+ * 单条访问日志
+ * 在事件循环线程上仅采集原始字段，格式化由输出线程完成
+ *
+ * @param upstreamNanos 上游耗时（纳秒），未转发到上游时为-1
+ */
+record AccessLogEntry(long timestamp, String method, String path, String routeId,
+                      int status, long durationNanos, long upstreamNanos) {
+}
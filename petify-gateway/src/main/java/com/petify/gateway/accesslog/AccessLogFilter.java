@@ -0,0 +1,106 @@
+package com.petify.gateway.accesslog;
+
+import com.petify.gateway.config.AccessLogProperties;
+import com.petify.gateway.filter.UpstreamTimingFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 访问日志全局过滤器
+ * 最先执行以覆盖完整处理耗时，请求结束时按采样/慢请求策略决定是否记录，
+ * 记录时仅采集路由、状态码、总耗时与上游耗时并交给{@link AccessLogWriter}异步输出
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 传递给下游服务的网关接收时间戳
+     */
+    public static final String HEADER_GATEWAY_TIMESTAMP = "X-Gateway-Timestamp";
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    /**
+     * 客户端在响应完成前断开连接（沿用Nginx的499）
+     */
+    public static final int CLIENT_CLOSED_REQUEST = 499;
+
+    private final AccessLogProperties properties;
+    private final AccessLogWriter writer;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        var mutatedExchange = exchange.mutate()
+                .request(request -> request.header(HEADER_GATEWAY_TIMESTAMP, String.valueOf(timestamp)))
+                .build();
+
+        if (!properties.isEnabled()) {
+            return chain.filter(mutatedExchange);
+        }
+        // 在doFinally中记录，客户端提前断开（常见于超时的慢请求）同样计入
+        var error = new AtomicReference<Throwable>();
+        return chain.filter(mutatedExchange)
+                .doOnError(error::set)
+                .doFinally(signal -> record(mutatedExchange, timestamp, start,
+                        statusOf(mutatedExchange, signal, error.get())));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private void record(ServerWebExchange exchange, long timestamp, long start, int status) {
+        long duration = System.nanoTime() - start;
+        if (!shouldLog(status, duration)) {
+            return;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        var request = exchange.getRequest();
+        writer.offer(new AccessLogEntry(timestamp, request.getMethod().name(), request.getPath().value(),
+                route != null ? route.getId() : "-", status, duration, UpstreamTimingFilter.upstreamNanos(exchange)));
+    }
+
+    private boolean shouldLog(int status, long durationNanos) {
+        if (status >= 500 && properties.isAlwaysLogErrors()) {
+            return true;
+        }
+        boolean slow = durationNanos >= properties.getSlowThreshold().toNanos();
+        return switch (properties.getMode()) {
+            case ALL -> true;
+            case SLOW_ONLY -> slow;
+            case SAMPLED -> slow || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        };
+    }
+
+    /**
+     * 客户端取消按499记录；异常尚未经GlobalErrorWebExceptionHandler写入响应，按异常类型推断状态码
+     */
+    public static int statusOf(ServerWebExchange exchange, SignalType signal, Throwable error) {
+        if (signal == SignalType.CANCEL) {
+            return CLIENT_CLOSED_REQUEST;
+        }
+        if (error != null) {
+            return error instanceof ResponseStatusException statusException
+                    ? statusException.getStatusCode().value()
+                    : 500;
+        }
+        var status = exchange.getResponse().getStatusCode();
+        return status != null ? status.value() : 200;
+    }
+}
@@ -0,0 +1,92 @@
+package com.petify.gateway.accesslog;
+
+import com.petify.gateway.config.AccessLogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问日志输出器
+ * 请求线程只把日志条目放入无锁环形缓冲区，由专用线程定期批量格式化并写入ACCESS_LOG日志器；
+ * 缓冲区写满时丢弃并计数（gateway.access-log.dropped），不阻塞请求线程
+ */
+@Component
+public class AccessLogWriter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+
+    private final AccessLogProperties properties;
+    private final RingBuffer<AccessLogEntry> buffer;
+    private final Counter dropped;
+
+    private Scheduler scheduler;
+    private Disposable drainTask;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buffer = new RingBuffer<>(properties.getBufferSize());
+        this.dropped = Counter.builder("gateway.access-log.dropped")
+                .description("Access log entries dropped because the buffer was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = properties.getFlushInterval().toMillis();
+        scheduler = Schedulers.newSingle("access-log", true);
+        drainTask = scheduler.schedulePeriodically(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.dispose();
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+        drain();
+    }
+
+    void offer(AccessLogEntry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private synchronized void drain() {
+        AccessLogEntry entry;
+        while ((entry = buffer.poll()) != null) {
+            ACCESS_LOG.info(format(entry));
+        }
+    }
+
+    private static String format(AccessLogEntry entry) {
+        var line = new StringBuilder(160)
+                .append("ts=").append(Instant.ofEpochMilli(entry.timestamp()))
+                .append(" route=").append(entry.routeId())
+                .append(" method=").append(entry.method())
+                .append(" path=").append(entry.path())
+                .append(" status=").append(entry.status())
+                .append(" duration_ms=").append(toMillis(entry.durationNanos()));
+        if (entry.upstreamNanos() >= 0) {
+            line.append(" upstream_ms=").append(toMillis(entry.upstreamNanos()))
+                    .append(" gateway_ms=").append(toMillis(entry.durationNanos() - entry.upstreamNanos()));
+        }
+        return line.toString();
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,31 @@
+package com.petify.gateway.cache;
+
+import org.springframework.http.HttpStatusCode;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缓存的上游响应
+ * 响应体保存在堆外直接内存中，写回时以只读副本零拷贝包装为DataBuffer
+ */
+record CachedResponse(HttpStatusCode status, Map<String, List<String>> headers, String etag, ByteBuffer body) {
+
+    static CachedResponse of(HttpStatusCode status, Map<String, List<String>> headers, String etag, byte[] body) {
+        var direct = ByteBuffer.allocateDirect(body.length);
+        direct.put(body).flip();
+        return new CachedResponse(status, headers, etag, direct.asReadOnlyBuffer());
+    }
+
+    int weight() {
+        return body.capacity() + 256;
+    }
+
+    /**
+     * 每次写回使用独立的读位置
+     */
+    ByteBuffer bodyView() {
+        return body.duplicate();
+    }
+}
@@ -0,0 +1,225 @@
+package com.petify.gateway.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petify.gateway.config.ResponseCacheProperties;
+import com.petify.gateway.filter.CapturingResponseDecorator;
+import com.petify.gateway.filter.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 网关响应缓存过滤器工厂
+ * 缓存按路由显式配置路径上的匿名GET 200响应，命中时直接由网关返回；
+ * 携带匹配If-None-Match的条件请求直接返回304。未提供ETag的上游响应按响应体摘要生成强ETag
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Gateway-Cache";
+
+    /**
+     * 先于请求合并过滤器执行，命中缓存的请求不再参与合并
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            "transfer-encoding", "content-length", "connection", "keep-alive", "date", "age");
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Cache<String, CachedResponse>> caches = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            var routeId = routeId(exchange);
+            var routeCache = routeId != null ? properties.getRoutes().get(routeId) : null;
+            if (!isCacheable(exchange.getRequest(), routeCache)) {
+                return chain.filter(exchange);
+            }
+
+            var cache = caches.computeIfAbsent(routeId, id -> newCache(id, routeCache));
+            var key = cacheKey(exchange.getRequest());
+            var cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return writeCached(exchange, cached, routeCache);
+            }
+            return fill(exchange, chain, cache, key, routeCache);
+        }, ORDER);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached,
+                                   ResponseCacheProperties.RouteCache routeCache) {
+        var response = exchange.getResponse();
+        var headers = response.getHeaders();
+        cached.headers().forEach(headers::put);
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (!headers.containsKey(HttpHeaders.CACHE_CONTROL)) {
+            headers.setCacheControl(CacheControl.maxAge(routeCache.getTtl()).cachePublic());
+        }
+
+        if (matchesIfNoneMatch(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.bodyView())));
+    }
+
+    /**
+     * 未命中时转发并截获响应，条件请求头被移除以确保上游返回完整的可缓存响应
+     */
+    private Mono<Void> fill(ServerWebExchange exchange, GatewayFilterChain chain, Cache<String, CachedResponse> cache,
+                            String key, ResponseCacheProperties.RouteCache routeCache) {
+        var capture = new CapturingResponseDecorator(exchange.getResponse(), routeCache.getMaxEntrySize().toBytes());
+        capture.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+        var request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(request).response(capture).build())
+                .doOnSuccess(ignored -> {
+                    var body = capture.capturedBody();
+                    if (body != null && isStorable(capture.getStatusCode() != null
+                            ? capture.getStatusCode().value() : 0, capture.getHeaders())) {
+                        var etag = capture.getHeaders().getETag();
+                        if (etag == null) {
+                            etag = "\"" + DigestUtil.sha256Hex(body) + "\"";
+                        }
+                        cache.put(key, CachedResponse.of(capture.getStatusCode(),
+                                cacheableHeaders(capture.getHeaders()), etag, body));
+                    }
+                });
+    }
+
+    private static boolean isStorable(int status, HttpHeaders headers) {
+        if (status != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        var cacheControl = headers.getCacheControl();
+        return cacheControl == null
+                || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+    }
+
+    private boolean isCacheable(ServerHttpRequest request, ResponseCacheProperties.RouteCache routeCache) {
+        if (!properties.isEnabled() || routeCache == null || request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        // 仅缓存匿名请求，避免跨用户共享响应
+        var headers = request.getHeaders();
+        if (headers.containsKey(HttpHeaders.AUTHORIZATION) || headers.containsKey(HttpHeaders.COOKIE)
+                || headers.containsKey(JwtAuthenticationFilter.HEADER_USER_ID)) {
+            return false;
+        }
+        var cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.contains("no-cache")) {
+            return false;
+        }
+        var path = request.getPath().value();
+        for (String pattern : routeCache.getPaths()) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesIfNoneMatch(List<String> ifNoneMatch, String etag) {
+        var normalized = stripWeak(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private String cacheKey(ServerHttpRequest request) {
+        var key = new StringBuilder(request.getURI().getRawPath());
+        var query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : properties.getVaryHeaders()) {
+            key.append('\n').append(header).append(':').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    private static Map<String, List<String>> cacheableHeaders(HttpHeaders headers) {
+        Map<String, List<String>> cacheable = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            var lowerName = name.toLowerCase(Locale.ROOT);
+            if (!EXCLUDED_HEADERS.contains(lowerName) && !lowerName.equals(CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT))
+                    && !lowerName.startsWith("ratelimit-") && !lowerName.startsWith("x-ratelimit-")) {
+                cacheable.put(name, List.copyOf(values));
+            }
+        });
+        return cacheable;
+    }
+
+    private Cache<String, CachedResponse> newCache(String routeId, ResponseCacheProperties.RouteCache routeCache) {
+        Cache<String, CachedResponse> cache = Caffeine.newBuilder()
+                .maximumWeight(routeCache.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse value) -> value.weight())
+                .expireAfterWrite(routeCache.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response-cache", Tags.of("route", routeId));
+        return cache;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : null;
+    }
+
+    /**
+     * 过滤器配置类，缓存的路由与路径由 gateway.response-cache 配置
+     */
+    public static class Config {
+    }
+}
@@ -0,0 +1,199 @@
+package com.petify.gateway.coalescing;
+
+import com.petify.gateway.config.CoalescingProperties;
+import com.petify.gateway.filter.CapturingResponseDecorator;
+import com.petify.gateway.filter.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 请求合并（single-flight）过滤器工厂
+ * 同一路由上并发到达的相同匿名GET请求（路径、查询参数及vary请求头均相同）只转发首个请求，
+ * 其余请求等待并共享其缓冲后的响应。首个请求完成后即从合并表移除，之后的请求重新转发，不引入缓存陈旧
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    public static final String COALESCED_HEADER = "X-Gateway-Coalesced";
+
+    /**
+     * 需先于NettyWriteResponseFilter执行，才能截获写回客户端的响应体
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            "transfer-encoding", "content-length", "connection", "keep-alive");
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private static final String METRIC_NAME = "gateway.coalescing";
+
+    private final CoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescingGatewayFilterFactory(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            var routeId = routeId(exchange);
+            if (!isCoalescable(exchange.getRequest(), routeId)) {
+                return chain.filter(exchange);
+            }
+
+            var key = coalescingKey(exchange.getRequest());
+            var sink = Sinks.<SharedResponse>one();
+            var existing = inFlight.putIfAbsent(key, sink);
+            if (existing != null) {
+                return follow(exchange, chain, routeId, existing);
+            }
+            return lead(exchange, chain, routeId, key, sink);
+        }, ORDER);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+                            String key, Sinks.One<SharedResponse> sink) {
+        counter(routeId, "leader").increment();
+        var capture = new CapturingResponseDecorator(exchange.getResponse(), properties.getMaxBodySize().toBytes());
+        return chain.filter(exchange.mutate().response(capture).build())
+                .doOnSuccess(ignored -> {
+                    var status = capture.getStatusCode();
+                    var body = capture.capturedBody();
+                    // 设置了Cookie的响应不分发给其他客户端
+                    if (status != null && body != null && !capture.getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                        sink.tryEmitValue(new SharedResponse(status, sharedHeaders(capture.getHeaders()), body));
+                    }
+                })
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    /**
+     * 等待首个请求的响应；首个请求失败、超时或响应不可共享时各自转发
+     */
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+                              Sinks.One<SharedResponse> leader) {
+        return leader.asMono()
+                .timeout(properties.getWaitTimeout())
+                .onErrorResume(e -> Mono.empty())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        counter(routeId, "fallthrough").increment();
+                        return chain.filter(exchange);
+                    }
+                    counter(routeId, "follower").increment();
+                    return write(exchange, shared.get());
+                });
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, SharedResponse shared) {
+        var response = exchange.getResponse();
+        response.setStatusCode(shared.status());
+        shared.headers().forEach(response.getHeaders()::put);
+        response.getHeaders().set(COALESCED_HEADER, "true");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private boolean isCoalescable(ServerHttpRequest request, String routeId) {
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        var patterns = routeId != null ? properties.getRoutes().get(routeId) : null;
+        if (patterns == null || patterns.isEmpty()) {
+            return false;
+        }
+        // 仅合并匿名请求，避免跨用户共享响应
+        var headers = request.getHeaders();
+        if (headers.containsKey(HttpHeaders.AUTHORIZATION) || headers.containsKey(HttpHeaders.COOKIE)
+                || headers.containsKey(JwtAuthenticationFilter.HEADER_USER_ID)) {
+            return false;
+        }
+        var path = request.getPath().value();
+        for (String pattern : patterns) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String coalescingKey(ServerHttpRequest request) {
+        var key = new StringBuilder(request.getURI().getRawPath());
+        var query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : properties.getVaryHeaders()) {
+            key.append('\n').append(header).append(':').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    private static Map<String, List<String>> sharedHeaders(HttpHeaders headers) {
+        Map<String, List<String>> shared = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            var lowerName = name.toLowerCase(Locale.ROOT);
+            if (!EXCLUDED_HEADERS.contains(lowerName)
+                    && !lowerName.startsWith("ratelimit-") && !lowerName.startsWith("x-ratelimit-")) {
+                shared.put(name, List.copyOf(values));
+            }
+        });
+        return shared;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : null;
+    }
+
+    private Counter counter(String routeId, String role) {
+        return Counter.builder(METRIC_NAME)
+                .description("Gateway single-flight request coalescing")
+                .tag("route", routeId)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 过滤器配置类，开启合并的路由与路径由 gateway.coalescing 配置
+     */
+    public static class Config {
+    }
+
+    private record SharedResponse(HttpStatusCode status, Map<String, List<String>> headers, byte[] body) {
+    }
+}
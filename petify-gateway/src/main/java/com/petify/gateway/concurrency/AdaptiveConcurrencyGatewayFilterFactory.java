@@ -0,0 +1,118 @@
+package com.petify.gateway.concurrency;
+
+import com.petify.gateway.config.ConcurrencyLimitProperties;
+import com.petify.gateway.exception.ErrorResponses;
+import com.petify.gateway.filter.UpstreamTimingFilter;
+import com.petify.gateway.route.RouteTableChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自适应并发限制过滤器工厂
+ * 路由级在途请求数达到动态上限时立即返回503，不在连接池和下游线程池中排队；
+ * 上限根据上游耗时（UpstreamTimingFilter统计）由GRADIENT2或AIMD算法调整，
+ * 导出 gateway.concurrency.limit / inflight / rejected 指标
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyGatewayFilterFactory(ConcurrencyLimitProperties properties,
+                                                   MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            if (!properties.isEnabled()) {
+                return chain.filter(exchange);
+            }
+            var routeId = routeId(exchange);
+            var limiter = limiters.computeIfAbsent(routeId, this::newLimiter);
+            int inflight = limiter.tryAcquire();
+            if (inflight < 0) {
+                return reject(exchange, routeId);
+            }
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limiter.release();
+                    return;
+                }
+                long upstreamNanos = UpstreamTimingFilter.upstreamNanos(exchange);
+                var status = exchange.getResponse().getStatusCode();
+                boolean dropped = signal == SignalType.ON_ERROR || upstreamNanos < 0
+                        || (status != null && status.is5xxServerError());
+                limiter.release(upstreamNanos, inflight, dropped);
+            });
+        };
+    }
+
+    /**
+     * 路由策略变化后切换到新策略，在途请求计数保留；策略未变的路由保留已学习的上限
+     */
+    @EventListener
+    public void onRouteTableChanged(RouteTableChangedEvent event) {
+        for (String routeId : event.getChangedRoutes()) {
+            var limiter = limiters.get(routeId);
+            if (limiter != null) {
+                limiter.update(properties.resolve(routeId));
+            }
+        }
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId) {
+        rejections.computeIfAbsent(routeId, id -> Counter.builder("gateway.concurrency.rejected")
+                .description("Requests rejected by the adaptive concurrency limit")
+                .tag("route", id)
+                .register(meterRegistry)).increment();
+        var response = exchange.getResponse();
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return ErrorResponses.SERVICE_BUSY.write(response);
+    }
+
+    private AdaptiveLimiter newLimiter(String routeId) {
+        var limiter = new AdaptiveLimiter(properties.resolve(routeId));
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveLimiter::inflight)
+                .description("Requests currently admitted by the adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    /**
+     * 过滤器配置类，并发限制策略由 gateway.concurrency-limit 按路由解析
+     */
+    public static class Config {
+    }
+}
@@ -0,0 +1,72 @@
+package com.petify.gateway.concurrency;
+
+import com.petify.gateway.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个路由的并发限制器：在途请求计数 + 动态上限
+ */
+class AdaptiveLimiter {
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile ConcurrencyLimitProperties.Policy policy;
+    private volatile ConcurrencyLimit limit;
+
+    AdaptiveLimiter(ConcurrencyLimitProperties.Policy policy) {
+        this.policy = policy;
+        this.limit = newLimit(policy);
+    }
+
+    /**
+     * 策略变化时以新策略的初始上限重新开始调整
+     */
+    synchronized void update(ConcurrencyLimitProperties.Policy newPolicy) {
+        if (!newPolicy.equals(policy)) {
+            policy = newPolicy;
+            limit = newLimit(newPolicy);
+        }
+    }
+
+    private static ConcurrencyLimit newLimit(ConcurrencyLimitProperties.Policy policy) {
+        return switch (policy.getAlgorithm()) {
+            case GRADIENT2 -> new Gradient2Limit(policy);
+            case AIMD -> new AimdLimit(policy);
+        };
+    }
+
+    /**
+     * 获取并发名额，返回获取时的在途请求数；已达上限时返回-1
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.limit()) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    void release(long rttNanos, int inflightAtStart, boolean dropped) {
+        inflight.decrementAndGet();
+        limit.onSample(rttNanos, inflightAtStart, dropped);
+    }
+
+    /**
+     * 未产生有效样本（如客户端取消）时仅释放名额
+     */
+    void release() {
+        inflight.decrementAndGet();
+    }
+
+    int limit() {
+        return limit.limit();
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+}
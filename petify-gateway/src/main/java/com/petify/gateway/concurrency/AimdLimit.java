@@ -0,0 +1,39 @@
+package com.petify.gateway.concurrency;
+
+import com.petify.gateway.config.ConcurrencyLimitProperties;
+
+/**
+ * 加性增、乘性减并发上限算法
+ * 请求失败或超过timeout时上限乘以backoffRatio；成功且在途请求达到上限一半以上时上限加1
+ */
+class AimdLimit implements ConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+
+    private volatile int limit;
+
+    AimdLimit(ConcurrencyLimitProperties.Policy policy) {
+        this.minLimit = policy.getMinLimit();
+        this.maxLimit = policy.getMaxLimit();
+        this.backoffRatio = policy.getBackoffRatio();
+        this.timeoutNanos = policy.getTimeout().toNanos();
+        this.limit = policy.getInitialLimit();
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (inflight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.petify.gateway.concurrency;
+
+/**
+ * 并发上限算法
+ */
+interface ConcurrencyLimit {
+
+    int limit();
+
+    /**
+     * 提交一次样本
+     *
+     * @param rttNanos 上游往返耗时
+     * @param inflight 请求开始时的在途请求数
+     * @param dropped  请求是否失败（超时、5xx、被熔断等）
+     */
+    void onSample(long rttNanos, int inflight, boolean dropped);
+}
@@ -0,0 +1,62 @@
+package com.petify.gateway.concurrency;
+
+import com.petify.gateway.config.ConcurrencyLimitProperties;
+
+/**
+ * 梯度并发上限算法
+ * 以长期延迟的指数平均为基线、单次样本为短期延迟：
+ * gradient = clamp(tolerance × long / short, 0.5, 1)，newLimit = limit × gradient + sqrt(limit)，再按smoothing平滑。
+ * 在途请求不足上限一半时不放大上限，避免低流量时上限无限增长
+ */
+class Gradient2Limit implements ConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int longWindow;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRttNanos;
+    private int samples;
+
+    Gradient2Limit(ConcurrencyLimitProperties.Policy policy) {
+        this.minLimit = policy.getMinLimit();
+        this.maxLimit = policy.getMaxLimit();
+        this.tolerance = policy.getRttTolerance();
+        this.smoothing = policy.getSmoothing();
+        this.longWindow = Math.max(policy.getLongWindow(), 1);
+        this.estimatedLimit = policy.getInitialLimit();
+        this.limit = policy.getInitialLimit();
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped || rttNanos <= 0) {
+            return;
+        }
+        // 预热阶段使用简单平均，之后使用指数平均
+        samples = Math.min(samples + 1, longWindow);
+        longRttNanos += (rttNanos - longRttNanos) / samples;
+
+        // 延迟明显回落（如上游恢复）时加速基线下降，避免基线长期偏高而过度放行
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        if (inflight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,67 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 访问日志配置属性类
+ * 访问日志经无锁环形缓冲区交由独立线程输出，事件循环线程不执行日志I/O
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    /**
+     * 是否启用访问日志
+     */
+    private boolean enabled = true;
+
+    /**
+     * 记录模式
+     */
+    private Mode mode = Mode.SAMPLED;
+
+    /**
+     * SAMPLED模式下普通请求的采样比例（0~1）
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * 慢请求阈值，慢请求在SAMPLED与SLOW_ONLY模式下总是记录
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * 是否总是记录5xx响应
+     */
+    private boolean alwaysLogErrors = true;
+
+    /**
+     * 环形缓冲区容量（向上取2的幂），写满时丢弃新日志
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * 输出线程批量写出的间隔
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    public enum Mode {
+        /**
+         * 记录全部请求
+         */
+        ALL,
+        /**
+         * 按比例采样，慢请求与错误总是记录
+         */
+        SAMPLED,
+        /**
+         * 仅记录慢请求与错误
+         */
+        SLOW_ONLY
+    }
+}
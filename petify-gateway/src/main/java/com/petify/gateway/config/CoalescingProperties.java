@@ -0,0 +1,47 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 请求合并（single-flight）配置属性类
+ * 并发的相同匿名GET请求共享一次上游调用，按路由显式开启
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * 是否启用请求合并
+     */
+    private boolean enabled = true;
+
+    /**
+     * 开启合并的路由及路径（Ant风格），Key为路由ID，未配置的路由不合并
+     */
+    private Map<String, List<String>> routes = new LinkedHashMap<>();
+
+    /**
+     * 参与合并Key计算的请求头，取值不同的请求不会合并
+     */
+    private List<String> varyHeaders = new ArrayList<>(List.of("Accept", "Accept-Encoding", "Accept-Language"));
+
+    /**
+     * 可分发给等待者的最大响应体，超过时等待者各自转发
+     */
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    /**
+     * 等待者等待首个请求响应的最长时间，超时后各自转发
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,98 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 自适应并发限制配置属性类
+ * 按路由根据观测到的上游延迟动态调整允许的在途请求数，达到上限时立即返回503
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * 是否启用自适应并发限制
+     */
+    private boolean enabled = true;
+
+    /**
+     * 默认策略
+     */
+    private Policy defaults = new Policy();
+
+    /**
+     * 路由级策略，Key为路由ID，未配置的路由使用默认策略
+     */
+    private Map<String, Policy> routes = new LinkedHashMap<>();
+
+    public Policy resolve(String routeId) {
+        var policy = routeId != null ? routes.get(routeId) : null;
+        return policy != null ? policy : defaults;
+    }
+
+    public enum Algorithm {
+        /**
+         * 按长期/短期延迟之比调整（梯度算法），延迟上升时平滑收缩
+         */
+        GRADIENT2,
+        /**
+         * 加性增、乘性减：无失败时逐步加1，失败或超时按比例收缩
+         */
+        AIMD
+    }
+
+    /**
+     * 并发限制策略
+     */
+    @Data
+    public static class Policy {
+        private Algorithm algorithm = Algorithm.GRADIENT2;
+
+        /**
+         * 初始并发上限
+         */
+        private int initialLimit = 50;
+
+        /**
+         * 并发上限下界
+         */
+        private int minLimit = 10;
+
+        /**
+         * 并发上限上界
+         */
+        private int maxLimit = 500;
+
+        /**
+         * GRADIENT2：允许短期延迟超出长期基线的倍数，超出后开始收缩
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * GRADIENT2：每次调整向新上限靠近的比例
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * GRADIENT2：长期延迟基线的样本窗口
+         */
+        private int longWindow = 600;
+
+        /**
+         * AIMD：失败时的收缩比例
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * AIMD：超过该延迟的请求视为失败
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,64 @@
+package com.petify.gateway.config;
+
+import com.petify.gateway.httpclient.ServiceConnectionProvider;
+import com.petify.gateway.httpclient.UpstreamServiceRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * 网关下游HTTP客户端配置
+ * 以按服务隔离的连接池替换Gateway默认的单一连接池，
+ * 其余客户端参数（连接超时、响应头限制、压缩、wiretap）仍沿用 spring.cloud.gateway.httpclient 配置
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * 按服务隔离的连接提供者，应用关闭时释放全部连接池
+     */
+    @Bean(destroyMethod = "dispose")
+    public ServiceConnectionProvider serviceConnectionProvider(HttpClientPoolProperties poolProperties,
+                                                               UpstreamServiceRegistry serviceRegistry) {
+        return new ServiceConnectionProvider(poolProperties, serviceRegistry);
+    }
+
+    /**
+     * NettyRoutingFilter使用的HTTP客户端，响应超时仍由NettyRoutingFilter按路由处理
+     */
+    @Bean
+    @Primary
+    public HttpClient gatewayHttpClient(HttpClientProperties properties, HttpClientPoolProperties poolProperties,
+                                        ServiceConnectionProvider connectionProvider,
+                                        ObjectProvider<HttpClientCustomizer> customizers) {
+        var httpClient = HttpClient.create(connectionProvider)
+                .httpResponseDecoder(spec -> {
+                    if (properties.getMaxHeaderSize() != null) {
+                        spec.maxHeaderSize((int) properties.getMaxHeaderSize().toBytes());
+                    }
+                    if (properties.getMaxInitialLineLength() != null) {
+                        spec.maxInitialLineLength((int) properties.getMaxInitialLineLength().toBytes());
+                    }
+                    return spec;
+                })
+                .compress(properties.isCompression())
+                .wiretap(properties.isWiretap());
+        if (properties.getConnectTimeout() != null) {
+            httpClient = httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeout());
+        }
+        if (poolProperties.isH2c()) {
+            // 支持h2c的下游协商为HTTP/2多路复用，不支持的仍使用HTTP/1.1
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        for (HttpClientCustomizer customizer : customizers.orderedStream().toList()) {
+            httpClient = customizer.customize(httpClient);
+        }
+        return httpClient;
+    }
+}
@@ -0,0 +1,80 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 下游连接池配置属性类
+ * 每个下游服务使用独立的固定容量连接池，单个服务繁忙不会占满其他服务的连接与等待队列
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.httpclient")
+public class HttpClientPoolProperties {
+
+    /**
+     * 是否以h2c（明文HTTP/2，支持HTTP/1.1升级协商）连接下游，需下游开启server.http2.enabled
+     */
+    private boolean h2c = false;
+
+    /**
+     * 默认连接池配置，未单独配置的服务及非负载均衡路由使用
+     */
+    private Pool defaults = new Pool();
+
+    /**
+     * 服务级连接池配置，Key为Nacos中的服务名
+     */
+    private Map<String, Pool> services = new LinkedHashMap<>();
+
+    public Pool resolve(String serviceId) {
+        var pool = serviceId != null ? services.get(serviceId) : null;
+        return pool != null ? pool : defaults;
+    }
+
+    /**
+     * 连接池配置，上限均针对单个下游实例
+     */
+    @Data
+    public static class Pool {
+        /**
+         * 最大连接数
+         */
+        private int maxConnections = 100;
+
+        /**
+         * 等待获取连接的最大请求数，超过时立即失败
+         */
+        private int pendingAcquireMaxCount = 200;
+
+        /**
+         * 等待获取连接的超时时间
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * 连接最大空闲时间，应小于下游keep-alive超时
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * 连接最大存活时间
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(10);
+
+        /**
+         * 后台清理过期连接的间隔
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        /**
+         * 是否按LIFO租借连接（优先复用最近使用的热连接，让多余连接自然空闲回收）
+         */
+        private boolean lifo = true;
+    }
+}
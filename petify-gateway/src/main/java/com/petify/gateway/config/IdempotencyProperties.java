@@ -0,0 +1,71 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Idempotency-Key响应重放配置属性类
+ * 携带Idempotency-Key的写请求首个响应保存在Redis中，重复提交直接重放
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * 是否启用Idempotency-Key响应重放
+     */
+    private boolean enabled = true;
+
+    /**
+     * 需要幂等保护的请求方法
+     */
+    private Set<String> methods = new LinkedHashSet<>(List.of("POST", "PATCH"));
+
+    /**
+     * Redis Key前缀
+     */
+    private String keyPrefix = "idempotency";
+
+    /**
+     * 已完成响应的保存时长
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * 处理中标记的过期时间，应大于上游响应超时，避免实例宕机后Key被永久占用
+     */
+    private Duration lockTtl = Duration.ofSeconds(35);
+
+    /**
+     * 重复请求等待首个请求完成的最长时间，超时返回409
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 等待其他网关实例处理结果时的轮询间隔
+     */
+    private Duration pollInterval = Duration.ofMillis(50);
+
+    /**
+     * 可保存的最大响应体，超过时不保存（释放Key，重复请求将再次转发）
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+    /**
+     * 可接受的最大请求体，请求体参与指纹计算需完整读入内存，超过时返回413
+     */
+    private DataSize maxRequestBodySize = DataSize.ofMegabytes(1);
+
+    /**
+     * Idempotency-Key最大长度
+     */
+    private int maxKeyLength = 255;
+}
@@ -0,0 +1,99 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JWT认证配置属性类
+ * 与用户服务共享同一签名密钥，网关本地完成Access Token校验
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "petify.jwt")
+public class JwtProperties {
+
+    /**
+     * HS256签名密钥，需与petify-user-service保持一致
+     */
+    private String secret = "petify-jwt-secret-key-for-development-only";
+
+    /**
+     * Token发行者
+     */
+    private String issuer = "petify-platform";
+
+    /**
+     * 是否启用网关JWT认证
+     */
+    private boolean enabled = true;
+
+    /**
+     * 无需认证的路径（Ant风格），携带有效Token时仍会注入用户信息头
+     */
+    private List<String> permitPaths = new ArrayList<>(List.of(
+            "/api/user/auth/**",
+            "/api/pet/breeds/**",
+            "/api/pet/categories/**",
+            "/health",
+            "/fallback/**",
+            "/actuator/**",
+            "/test/**"
+    ));
+
+    /**
+     * 已解析Claims缓存配置
+     */
+    private ClaimsCache cache = new ClaimsCache();
+
+    /**
+     * Token撤销同步配置
+     */
+    private Revocation revocation = new Revocation();
+
+    /**
+     * 已解析Claims缓存配置
+     */
+    @Data
+    public static class ClaimsCache {
+        /**
+         * 缓存最大条目数
+         */
+        private long maximumSize = 100_000;
+    }
+
+    /**
+     * Token撤销同步配置
+     */
+    @Data
+    public static class Revocation {
+        /**
+         * 是否在网关校验Token撤销状态
+         */
+        private boolean enabled = true;
+
+        /**
+         * 用户服务发布撤销JTI的Redis频道
+         */
+        private String channel = "token:revoked";
+
+        /**
+         * 布隆过滤器预期容纳的撤销JTI数量
+         */
+        private long expectedInsertions = 100_000;
+
+        /**
+         * 布隆过滤器误判率，误判时回查Redis
+         */
+        private double falsePositiveProbability = 0.01;
+
+        /**
+         * 从Redis全量重建过滤器的间隔
+         */
+        private Duration resyncInterval = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,16 @@
+package com.petify.gateway.config;
+
+import com.petify.gateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 负载均衡配置
+ * 所有 lb:// 路由默认使用延迟感知的P2C负载均衡器替代轮询
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.load-balancer", name = "enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
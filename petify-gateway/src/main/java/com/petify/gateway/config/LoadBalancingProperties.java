@@ -0,0 +1,37 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 延迟感知负载均衡配置属性类
+ * lb:// 路由按 Peak EWMA 延迟 × 在途请求数 的代价做二选一随机（P2C）实例选择
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancingProperties {
+
+    /**
+     * 是否启用延迟感知负载均衡，关闭时使用默认轮询
+     */
+    private boolean enabled = true;
+
+    /**
+     * EWMA衰减时间常数，越小对延迟变化越敏感
+     */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * 尚无延迟样本的实例采用的初始延迟估计
+     */
+    private Duration initialLatency = Duration.ofMillis(50);
+
+    /**
+     * 转发失败（连接失败、超时等）时计入的最小延迟样本，使失败实例迅速失去流量
+     */
+    private Duration failurePenalty = Duration.ofSeconds(2);
+}
@@ -0,0 +1,97 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 优先级负载削减配置属性类
+ * 请求按路径与方法分为 critical / normal / sheddable 三类，各类独立限制在途请求数；
+ * CPU或延迟压力升高时先拒绝sheddable，再拒绝normal，critical（登录、刷新令牌）始终放行
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-shedding")
+public class LoadSheddingProperties {
+
+    /**
+     * 是否启用负载削减
+     */
+    private boolean enabled = true;
+
+    /**
+     * 关键请求（Ant风格路径，不区分方法）
+     */
+    private ClassPolicy critical = new ClassPolicy(List.of("/api/user/auth/**"), 1000);
+
+    /**
+     * 普通请求：写请求及未归入其他类别的请求
+     */
+    private ClassPolicy normal = new ClassPolicy(List.of(), 500);
+
+    /**
+     * 可削减请求（Ant风格路径，仅GET/HEAD）：目录、搜索、分页列表
+     */
+    private ClassPolicy sheddable = new ClassPolicy(List.of(
+            "/api/pet/breeds/**", "/api/pet/categories/**", "/api/**/search", "/api/**/page"), 200);
+
+    /**
+     * 压力采样间隔
+     */
+    private Duration sampleInterval = Duration.ofSeconds(1);
+
+    /**
+     * 进程CPU使用率（0~1）达到该值时削减sheddable请求
+     */
+    private double cpuElevated = 0.75;
+
+    /**
+     * 进程CPU使用率（0~1）达到该值时同时削减normal请求
+     */
+    private double cpuCritical = 0.9;
+
+    /**
+     * 上游耗时分位数达到该值时削减sheddable请求
+     */
+    private Duration latencyElevated = Duration.ofMillis(500);
+
+    /**
+     * 上游耗时分位数达到该值时同时削减normal请求
+     */
+    private Duration latencyCritical = Duration.ofSeconds(2);
+
+    /**
+     * 压力判断使用的上游耗时分位数（0~1）
+     */
+    private double latencyPercentile = 0.9;
+
+    /**
+     * 压力等级回落所需的连续平稳采样次数，每次只降一级
+     */
+    private int recoverySamples = 3;
+
+    /**
+     * 请求类别策略
+     */
+    @Data
+    public static class ClassPolicy {
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 该类别最大在途请求数
+         */
+        private int maxConcurrent;
+
+        public ClassPolicy() {
+        }
+
+        public ClassPolicy(List<String> paths, int maxConcurrent) {
+            this.paths = new ArrayList<>(paths);
+            this.maxConcurrent = maxConcurrent;
+        }
+    }
+}
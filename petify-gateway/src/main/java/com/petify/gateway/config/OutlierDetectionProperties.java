@@ -0,0 +1,62 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 实例级熔断（异常实例剔除）配置属性类
+ * 每个上游实例独立熔断，熔断中的实例不再被负载均衡选中，其余健康实例继续提供服务
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.outlier-detection")
+public class OutlierDetectionProperties {
+
+    /**
+     * 是否启用实例级熔断
+     */
+    private boolean enabled = true;
+
+    /**
+     * 统计窗口内的调用数
+     */
+    private int slidingWindowSize = 20;
+
+    /**
+     * 计算失败率所需的最少调用数
+     */
+    private int minimumNumberOfCalls = 10;
+
+    /**
+     * 失败率阈值（百分比），达到后剔除实例
+     */
+    private float failureRateThreshold = 50;
+
+    /**
+     * 慢调用阈值
+     */
+    private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+    /**
+     * 慢调用率阈值（百分比），达到后剔除实例
+     */
+    private float slowCallRateThreshold = 80;
+
+    /**
+     * 剔除时长，到期后进入半开状态放行探测请求
+     */
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    /**
+     * 半开状态放行的探测请求数
+     */
+    private int permittedCallsInHalfOpenState = 3;
+
+    /**
+     * 单个服务最多可剔除的实例比例（百分比，向下取整），超出时只保留失败率最高的实例处于剔除状态
+     */
+    private int maxEjectionPercent = 50;
+}
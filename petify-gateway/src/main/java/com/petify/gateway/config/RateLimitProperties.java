@@ -1,9 +1,14 @@
 package com.petify.gateway.config;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 限流配置属性类
  * 统一的Gateway限流参数配置
@@ -19,10 +24,32 @@ public class RateLimitProperties {
     private GlobalRateLimit global = new GlobalRateLimit();
 
     /**
-     * 全局限流配置
+     * 路由级限流策略，Key为路由ID，未配置的路由使用全局策略
+     */
+    private Map<String, RoutePolicy> routes = new LinkedHashMap<>();
+
+    /**
+     * 本地令牌桶前置层配置
+     */
+    private LocalTier local = new LocalTier();
+
+    /**
+     * 根据路由与Key类别解析生效的限流策略：Key类别策略 > 路由策略 > 全局策略
+     */
+    public Policy resolve(String routeId, String keyClass) {
+        var route = routes.get(routeId);
+        if (route == null) {
+            return global;
+        }
+        var keyClassPolicy = keyClass != null ? route.getKeyClasses().get(keyClass) : null;
+        return keyClassPolicy != null ? keyClassPolicy : route;
+    }
+
+    /**
+     * 令牌桶限流策略
      */
     @Data
-    public static class GlobalRateLimit {
+    public static class Policy {
         /**
          * 令牌桶每秒补充速率
          */
@@ -37,9 +64,16 @@ public class RateLimitProperties {
          * 每次请求消耗的令牌数
          */
         private int requestedTokens = 1;
+    }
 
+    /**
+     * 全局限流配置
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class GlobalRateLimit extends Policy {
         /**
-         * 重试延迟时间（秒）
+         * 重试延迟时间（秒），仅在限流器未给出Retry-After时兜底使用
          */
         private int retryAfterSeconds = 60;
 
@@ -58,4 +92,52 @@ public class RateLimitProperties {
          */
         private int keyExpiration = 3600;
     }
-}
\ No newline at end of file
+
+    /**
+     * 路由级限流策略
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class RoutePolicy extends Policy {
+        /**
+         * 按Key类别（user：已认证用户，ip：匿名客户端）细分的策略
+         */
+        private Map<String, Policy> keyClasses = new LinkedHashMap<>();
+    }
+
+    /**
+     * 本地令牌桶前置层配置
+     */
+    @Data
+    public static class LocalTier {
+        /**
+         * 是否启用本地前置令牌桶
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本地桶剩余令牌高于容量的该比例时直接本地放行，不访问Redis
+         */
+        private double localThreshold = 0.5;
+
+        /**
+         * 本地消耗批量同步到Redis的间隔
+         */
+        private Duration syncInterval = Duration.ofSeconds(1);
+
+        /**
+         * Redis调用超时，超时后降级为仅本地限流
+         */
+        private Duration redisTimeout = Duration.ofMillis(50);
+
+        /**
+         * Redis异常后保持仅本地模式的时长
+         */
+        private Duration degradedBackoff = Duration.ofSeconds(5);
+
+        /**
+         * 本地令牌桶最大数量
+         */
+        private long maximumBuckets = 100_000;
+    }
+}
@@ -0,0 +1,63 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关响应缓存配置属性类
+ * 公开目录类接口的匿名GET响应缓存在网关内存中，按路由配置容量与TTL
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * 是否启用网关响应缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 开启缓存的路由配置，Key为路由ID，未配置的路由不缓存
+     */
+    private Map<String, RouteCache> routes = new LinkedHashMap<>();
+
+    /**
+     * 参与缓存Key计算的请求头
+     */
+    private List<String> varyHeaders = new ArrayList<>(List.of("Accept", "Accept-Encoding", "Accept-Language"));
+
+    /**
+     * 路由级缓存配置
+     */
+    @Data
+    public static class RouteCache {
+        /**
+         * 可缓存的路径（Ant风格）
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 缓存存活时间
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+
+        /**
+         * 该路由缓存的最大总容量（按响应体大小计算）
+         */
+        private DataSize maximumSize = DataSize.ofMegabytes(16);
+
+        /**
+         * 单个响应体上限，超过时不缓存
+         */
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+    }
+}
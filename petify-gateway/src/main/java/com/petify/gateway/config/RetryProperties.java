@@ -0,0 +1,88 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 网关重试配置属性类
+ * 仅重试幂等请求或携带Idempotency-Key的请求，按路由限制重试预算
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.retry")
+public class RetryProperties {
+
+    /**
+     * 是否启用网关重试
+     */
+    private boolean enabled = true;
+
+    /**
+     * 默认重试策略
+     */
+    private Policy defaults = new Policy();
+
+    /**
+     * 路由级重试策略，Key为路由ID，未配置的路由使用默认策略
+     */
+    private Map<String, Policy> routes = new LinkedHashMap<>();
+
+    public Policy resolve(String routeId) {
+        var policy = routeId != null ? routes.get(routeId) : null;
+        return policy != null ? policy : defaults;
+    }
+
+    /**
+     * 重试策略
+     */
+    @Data
+    public static class Policy {
+        /**
+         * 最大重试次数（不含首次请求）
+         */
+        private int maxRetries = 2;
+
+        /**
+         * 首次重试退避时间，之后按2的指数增长
+         */
+        private Duration firstBackoff = Duration.ofMillis(50);
+
+        /**
+         * 最大退避时间
+         */
+        private Duration maxBackoff = Duration.ofMillis(500);
+
+        /**
+         * 退避抖动比例（0~1），实际退避在 [退避×(1-jitter), 退避] 之间随机
+         */
+        private double jitter = 0.5;
+
+        /**
+         * 重试预算：统计窗口内重试次数不超过请求数的该比例
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * 低流量时每秒保底允许的重试次数
+         */
+        private int minRetriesPerSecond = 3;
+
+        /**
+         * 重试预算统计窗口
+         */
+        private Duration budgetWindow = Duration.ofSeconds(10);
+
+        /**
+         * 触发重试的上游响应状态码
+         */
+        private Set<Integer> statuses = new LinkedHashSet<>(List.of(502, 503, 504));
+    }
+}
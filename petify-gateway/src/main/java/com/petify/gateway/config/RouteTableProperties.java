@@ -0,0 +1,37 @@
+package com.petify.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 动态路由表配置属性类
+ * 路由定义、路由过滤器开关及路由级限流/重试/并发策略从独立的Nacos配置加载，运行时热更新
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.route-table")
+public class RouteTableProperties {
+
+    /**
+     * 是否从Nacos加载路由表，关闭或配置不存在时使用内置路由表
+     */
+    private boolean enabled = true;
+
+    /**
+     * 路由表所在的Nacos Data ID（YAML）
+     */
+    private String dataId = "petify-gateway-routes.yml";
+
+    /**
+     * 路由表所在的Nacos分组
+     */
+    private String group = "DEFAULT_GROUP";
+
+    /**
+     * 启动时读取路由表的超时时间
+     */
+    private Duration timeout = Duration.ofSeconds(3);
+}
@@ -0,0 +1,30 @@
+package com.petify.gateway.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 网关自身产生的常量错误响应，进程内只编码一次
+ */
+public final class ErrorResponses {
+
+    public static final PreEncodedError NOT_FOUND =
+            PreEncodedError.of(HttpStatus.NOT_FOUND, "Service not found");
+
+    public static final PreEncodedError INTERNAL_ERROR =
+            PreEncodedError.of(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
+
+    /**
+     * 自适应并发限制拒绝
+     */
+    public static final PreEncodedError SERVICE_BUSY =
+            PreEncodedError.of(HttpStatus.SERVICE_UNAVAILABLE, "Service is busy, please retry later");
+
+    /**
+     * 优先级负载削减拒绝
+     */
+    public static final PreEncodedError OVERLOADED =
+            PreEncodedError.of(HttpStatus.SERVICE_UNAVAILABLE, "Service is overloaded, please retry later");
+
+    private ErrorResponses() {
+    }
+}
@@ -1,29 +1,30 @@
 package com.petify.gateway.exception;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.petify.common.result.Result;
 import com.petify.gateway.config.RateLimitProperties;
+import com.petify.gateway.ratelimit.TieredRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.cloud.gateway.support.NotFoundException;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.time.Instant;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * 全局异常处理器，符合RFC 6585标准的429响应处理
- * 处理Spring Cloud Gateway的限流和其他异常
+ * 处理Spring Cloud Gateway的限流和其他异常。
+ * 响应体均为预编码的只读缓冲区，按异常类型分类，完整堆栈按异常类型每个间隔最多输出一次
  */
 @Slf4j
 @Order(-1)
@@ -31,153 +32,150 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class GlobalErrorWebExceptionHandler implements ErrorWebExceptionHandler {
 
-    private final ObjectMapper objectMapper;
+    /**
+     * 预编码的429响应体覆盖的最大Retry-After秒数，超出时按需编码
+     */
+    private static final int MAX_CACHED_RETRY_AFTER = 300;
+
+    /**
+     * 按(状态码, 原因)缓存的ResponseStatusException响应体数量上限
+     */
+    private static final int MAX_CACHED_REASONS = 256;
+
     private final RateLimitProperties rateLimitProperties;
 
+    private final AtomicReferenceArray<PreEncodedError> rateLimitBodies =
+            new AtomicReferenceArray<>(MAX_CACHED_RETRY_AFTER + 1);
+    private final Map<String, PreEncodedError> statusBodies = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Long> lastStackTraceNanos = new ConcurrentHashMap<>();
+
+    /**
+     * 同一异常类型输出完整堆栈的最小间隔，其余只输出单行日志
+     */
+    @Value("${gateway.error.stack-trace-interval:60s}")
+    private Duration stackTraceInterval;
+
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
-        ServerHttpResponse response = exchange.getResponse();
-        
-        if (response.isCommitted()) {
+        if (exchange.getResponse().isCommitted()) {
             return Mono.error(ex);
         }
 
-        // Handle different types of exceptions
-        if (isRateLimitException(ex)) {
-            return handleRateLimitException(exchange, ex);
-        } else if (ex instanceof NotFoundException) {
-            return handleNotFoundException(exchange, ex);
-        } else if (ex instanceof ResponseStatusException statusEx) {
+        // NotFoundException继承自ResponseStatusException，需先于后者判断
+        if (ex instanceof NotFoundException) {
+            log.debug("No service instance for {} {}", exchange.getRequest().getMethod(), exchange.getRequest().getPath());
+            return ErrorResponses.NOT_FOUND.write(exchange.getResponse());
+        }
+        if (ex instanceof ResponseStatusException statusEx) {
+            if (statusEx.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                return handleRateLimitException(exchange);
+            }
             return handleResponseStatusException(exchange, statusEx);
-        } else {
-            return handleGenericException(exchange, ex);
         }
+        logServerError(exchange, ex);
+        return ErrorResponses.INTERNAL_ERROR.write(exchange.getResponse());
     }
 
     /**
-     * 判断是否为限流异常
+     * 处理限流异常 - 符合RFC 6585标准
      */
-    private boolean isRateLimitException(Throwable ex) {
-        if (ex instanceof ResponseStatusException statusEx) {
-            return statusEx.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+    private Mono<Void> handleRateLimitException(ServerWebExchange exchange) {
+        var response = exchange.getResponse();
+        var headers = response.getHeaders();
+        headers.set(HttpHeaders.CACHE_CONTROL, "no-store"); // RFC 6585要求
+
+        // 限流器已按令牌桶实际状态写入RateLimit-*与Retry-After头，此处仅在缺失时兜底
+        long retryAfterSeconds = parseSeconds(headers.getFirst(TieredRateLimiter.RETRY_AFTER_HEADER),
+                rateLimitProperties.getGlobal().getRetryAfterSeconds());
+        headers.set(TieredRateLimiter.RETRY_AFTER_HEADER, String.valueOf(retryAfterSeconds));
+        if (!headers.containsKey(TieredRateLimiter.RATE_LIMIT_REMAINING_HEADER)) {
+            headers.set(TieredRateLimiter.RATE_LIMIT_REMAINING_HEADER, "0");
+            headers.set(TieredRateLimiter.RATE_LIMIT_RESET_HEADER, String.valueOf(retryAfterSeconds));
         }
-        
-        // Spring Cloud Gateway rate limiter抛出的异常通常包含特定消息
-        String message = ex.getMessage();
-        return message != null && (
-            message.contains("Request rate limit exceeded") ||
-            message.contains("rate limit") ||
-            message.contains("429") ||
-            ex.getClass().getSimpleName().contains("RateLimit")
-        );
+
+        log.debug("Rate limit exceeded for request: {} {}",
+                exchange.getRequest().getMethod(), exchange.getRequest().getPath());
+        return rateLimitBody(retryAfterSeconds).write(response);
     }
 
-    /**
-     * 处理限流异常 - 符合RFC 6585标准
-     */
-    private Mono<Void> handleRateLimitException(ServerWebExchange exchange, Throwable ex) {
-        ServerHttpResponse response = exchange.getResponse();
-        
-        // 设置HTTP状态码
-        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
-        
-        // 设置标准HTTP头
-        response.getHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
-        response.getHeaders().set("Cache-Control", "no-store"); // RFC 6585要求
-        
-        // 设置标准Rate Limit头 - 符合draft-ietf-httpapi-ratelimit-headers
-        int retryAfterSeconds = rateLimitProperties.getGlobal().getRetryAfterSeconds();
-        response.getHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
-        response.getHeaders().set("X-RateLimit-Limit", "1");
-        response.getHeaders().set("X-RateLimit-Remaining", "0");
-        response.getHeaders().set("X-RateLimit-Reset", String.valueOf(Instant.now().getEpochSecond() + retryAfterSeconds));
-        
-        // 创建符合应用标准的响应体
-        RateLimitErrorResponse errorResponse = new RateLimitErrorResponse(
-            "RATE_LIMIT_EXCEEDED",
-            "Rate limit exceeded. Please try again in " + retryAfterSeconds + " seconds.",
-            retryAfterSeconds,
-            Instant.now().getEpochSecond() + retryAfterSeconds
-        );
-        
-        Result<Object> result = Result.error(429, errorResponse.message());
-        
-        try {
-            String body = objectMapper.writeValueAsString(result);
-            DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
-            
-            log.warn("Rate limit exceeded for request: {} {}", 
-                exchange.getRequest().getMethod(), 
-                exchange.getRequest().getURI());
-            
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing rate limit response", e);
-            return response.setComplete();
+    private PreEncodedError rateLimitBody(long retryAfterSeconds) {
+        if (retryAfterSeconds < 0 || retryAfterSeconds > MAX_CACHED_RETRY_AFTER) {
+            return encodeRateLimitBody(retryAfterSeconds);
         }
+        int index = (int) retryAfterSeconds;
+        var body = rateLimitBodies.get(index);
+        if (body == null) {
+            body = encodeRateLimitBody(retryAfterSeconds);
+            rateLimitBodies.compareAndSet(index, null, body);
+        }
+        return body;
     }
 
-    /**
-     * 处理服务未找到异常
-     */
-    private Mono<Void> handleNotFoundException(ServerWebExchange exchange, Throwable ex) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.NOT_FOUND);
-        response.getHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
-        
-        Result<Object> result = Result.error(404, "Service not found");
-        return writeResponse(response, result, ex);
+    private static PreEncodedError encodeRateLimitBody(long retryAfterSeconds) {
+        return PreEncodedError.of(HttpStatus.TOO_MANY_REQUESTS,
+                "Rate limit exceeded. Please try again in " + retryAfterSeconds + " seconds.");
     }
 
     /**
-     * 处理ResponseStatusException
+     * 处理ResponseStatusException，响应体按(状态码, 原因)缓存
      */
     private Mono<Void> handleResponseStatusException(ServerWebExchange exchange, ResponseStatusException ex) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(ex.getStatusCode());
-        response.getHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
-        
-        String message = ex.getReason() != null ? ex.getReason() : "Request failed";
-        Result<Object> result = Result.error(ex.getStatusCode().value(), message);
-        return writeResponse(response, result, ex);
+        var status = ex.getStatusCode();
+        if (status.is5xxServerError()) {
+            logServerError(exchange, ex);
+        } else {
+            log.debug("Gateway request failed with {}: {}", status.value(), ex.getReason());
+        }
+        var message = ex.getReason() != null ? ex.getReason() : "Request failed";
+        return statusBody(status, message).write(exchange.getResponse());
     }
 
-    /**
-     * 处理通用异常
-     */
-    private Mono<Void> handleGenericException(ServerWebExchange exchange, Throwable ex) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
-        response.getHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
-        
-        Result<Object> result = Result.error(500, "Internal server error");
-        return writeResponse(response, result, ex);
+    private PreEncodedError statusBody(HttpStatusCode status, String message) {
+        var key = status.value() + ":" + message;
+        var body = statusBodies.get(key);
+        if (body != null) {
+            return body;
+        }
+        body = PreEncodedError.of(status, message);
+        if (statusBodies.size() < MAX_CACHED_REASONS) {
+            statusBodies.putIfAbsent(key, body);
+        }
+        return body;
     }
 
     /**
-     * 写入响应
+     * 5xx错误：同一异常类型每个间隔内只输出一次完整堆栈，其余输出单行日志
      */
-    private Mono<Void> writeResponse(ServerHttpResponse response, Result<Object> result, Throwable ex) {
-        try {
-            String body = objectMapper.writeValueAsString(result);
-            DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
-            
-            log.error("Gateway error: {}", ex.getMessage(), ex);
-            
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing error response", e);
-            return response.setComplete();
+    private void logServerError(ServerWebExchange exchange, Throwable ex) {
+        var request = exchange.getRequest();
+        if (shouldLogStackTrace(ex.getClass())) {
+            log.error("Gateway error on {} {}: {}", request.getMethod(), request.getPath(), ex.getMessage(), ex);
+        } else {
+            log.warn("Gateway error on {} {}: {}", request.getMethod(), request.getPath(), ex.toString());
         }
     }
 
-    /**
-     * 限流错误响应详情
-     */
-    public record RateLimitErrorResponse(
-        String errorCode,
-        String message,
-        int retryAfterSeconds,
-        long resetTimestamp
-    ) {}
-}
\ No newline at end of file
+    private boolean shouldLogStackTrace(Class<?> type) {
+        long now = System.nanoTime();
+        long interval = stackTraceInterval.toNanos();
+        var previous = lastStackTraceNanos.get(type);
+        if (previous != null && now - previous < interval) {
+            return false;
+        }
+        // 并发时仅一个线程赢得本次输出
+        return previous == null
+                ? lastStackTraceNanos.putIfAbsent(type, now) == null
+                : lastStackTraceNanos.replace(type, previous, now);
+    }
+
+    private static long parseSeconds(String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
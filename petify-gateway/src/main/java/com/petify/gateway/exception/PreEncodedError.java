@@ -0,0 +1,58 @@
+package com.petify.gateway.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petify.common.result.Result;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 预编码的错误响应
+ * {@link Result}格式的响应体在创建时编码一次并保存在只读直接内存中，
+ * 每次写回仅包装一个独立读位置的视图，不做序列化、不复制字节
+ */
+public final class PreEncodedError {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpStatusCode status;
+    private final ByteBuffer body;
+
+    private PreEncodedError(HttpStatusCode status, byte[] json) {
+        this.status = status;
+        var direct = ByteBuffer.allocateDirect(json.length);
+        direct.put(json).flip();
+        this.body = direct.asReadOnlyBuffer();
+    }
+
+    /**
+     * 与控制器返回的{@link Result}使用相同的Jackson序列化，字段（包括success）保持一致
+     */
+    public static PreEncodedError of(HttpStatusCode status, String message) {
+        try {
+            return new PreEncodedError(status, MAPPER.writeValueAsBytes(Result.error(status.value(), message)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("错误响应编码失败: " + message, e);
+        }
+    }
+
+    public HttpStatusCode status() {
+        return status;
+    }
+
+    /**
+     * 写入状态码、Content-Type与响应体，调用方可在此之前追加其他响应头
+     */
+    public Mono<Void> write(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        var headers = response.getHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.remaining()));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.duplicate())));
+    }
+}
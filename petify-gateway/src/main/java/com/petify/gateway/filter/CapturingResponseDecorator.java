@@ -0,0 +1,64 @@
+package com.petify.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 边写回客户端边截获响应体的响应装饰器
+ * 响应体超过上限或为流式响应时放弃截获，但不影响写回客户端
+ */
+public class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final long maxBytes;
+    private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    private volatile boolean overflow;
+    private volatile boolean completed;
+
+    public CapturingResponseDecorator(ServerHttpResponse delegate, long maxBytes) {
+        super(delegate);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return super.writeWith(Flux.from(body)
+                .doOnNext(this::capture)
+                .doOnComplete(() -> completed = true));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        overflow = true;
+        return super.writeAndFlushWith(body);
+    }
+
+    /**
+     * 完整截获的响应体；未写完、超过上限或流式响应时返回null
+     */
+    public byte[] capturedBody() {
+        return completed && !overflow ? captured.toByteArray() : null;
+    }
+
+    private void capture(DataBuffer buffer) {
+        if (overflow) {
+            return;
+        }
+        int readable = buffer.readableByteCount();
+        if (captured.size() + readable > maxBytes) {
+            overflow = true;
+            captured.reset();
+            return;
+        }
+        int position = buffer.readPosition();
+        byte[] bytes = new byte[readable];
+        buffer.read(bytes);
+        buffer.readPosition(position);
+        captured.write(bytes, 0, readable);
+    }
+}
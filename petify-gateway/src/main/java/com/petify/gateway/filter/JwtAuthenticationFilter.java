@@ -0,0 +1,128 @@
+package com.petify.gateway.filter;
+
+import com.petify.gateway.config.JwtProperties;
+import com.petify.gateway.security.JwtTokenVerifier;
+import com.petify.gateway.security.RevokedTokenRegistry;
+import com.petify.gateway.security.TokenClaims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * JWT认证全局过滤器
+ * 在网关本地校验Access Token，并将用户信息以请求头形式传递给下游服务；
+ * 客户端自带的用户信息头一律清除，下游服务只信任网关注入的值
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String HEADER_USER_ID = "X-User-Id";
+    public static final String HEADER_USERNAME = "X-Username";
+    public static final String HEADER_USER_ROLES = "X-User-Roles";
+
+    /**
+     * 认证结果在exchange中的属性名，供后续过滤器读取
+     */
+    public static final String TOKEN_CLAIMS_ATTR = JwtAuthenticationFilter.class.getName() + ".claims";
+
+    /**
+     * 需先于限流过滤器执行，使限流Key基于已验证的用户ID
+     */
+    public static final int ORDER = -100;
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final JwtProperties jwtProperties;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!jwtProperties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        var path = exchange.getRequest().getPath().value();
+        var token = resolveToken(exchange.getRequest().getHeaders());
+        Optional<TokenClaims> verified = token != null ? jwtTokenVerifier.verify(token) : Optional.empty();
+
+        if (verified.isEmpty()) {
+            var reason = token == null ? "Missing access token" : "Invalid or expired access token";
+            return proceed(exchange, chain, path, null, reason);
+        }
+
+        var claims = verified.get();
+        return revokedTokenRegistry.isRevoked(claims.jti())
+                .flatMap(revoked -> revoked
+                        ? proceed(exchange, chain, path, null, "Access token has been revoked")
+                        : proceed(exchange, chain, path, claims, null));
+    }
+
+    /**
+     * 认证失败且路径需要认证时返回401，否则重写用户信息头后继续转发
+     */
+    private Mono<Void> proceed(ServerWebExchange exchange, GatewayFilterChain chain, String path,
+                               TokenClaims claims, String rejectReason) {
+        if (claims == null && !isPermitted(path)) {
+            log.debug("Rejected unauthenticated request to {}: {}", path, rejectReason);
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, rejectReason));
+        }
+
+        var mutatedExchange = exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(HEADER_USER_ID);
+                    headers.remove(HEADER_USERNAME);
+                    headers.remove(HEADER_USER_ROLES);
+                    if (claims != null) {
+                        headers.set(HEADER_USER_ID, String.valueOf(claims.userId()));
+                        if (claims.username() != null) {
+                            headers.set(HEADER_USERNAME, claims.username());
+                        }
+                        headers.set(HEADER_USER_ROLES, claims.roles());
+                    }
+                }))
+                .build();
+        if (claims != null) {
+            mutatedExchange.getAttributes().put(TOKEN_CLAIMS_ATTR, claims);
+        }
+
+        return chain.filter(mutatedExchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private boolean isPermitted(String path) {
+        for (String pattern : jwtProperties.getPermitPaths()) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String resolveToken(HttpHeaders headers) {
+        var authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        var token = authorization.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+}
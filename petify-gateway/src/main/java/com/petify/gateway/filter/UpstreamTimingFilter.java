@@ -0,0 +1,49 @@
+package com.petify.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 上游耗时统计全局过滤器
+ * 紧邻路由过滤器执行，记录从发起转发到收到上游响应头的耗时；重试时累加各次转发耗时
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 上游累计耗时（纳秒，Long）在exchange中的属性名
+     */
+    public static final String UPSTREAM_NANOS_ATTR = UpstreamTimingFilter.class.getName() + ".upstreamNanos";
+
+    /**
+     * 先于NettyRoutingFilter等路由过滤器执行
+     */
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> exchange.getAttributes().merge(UPSTREAM_NANOS_ATTR,
+                            System.nanoTime() - start, (previous, elapsed) -> (Long) previous + (Long) elapsed));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * 读取上游累计耗时，未转发到上游时返回-1
+     */
+    public static long upstreamNanos(ServerWebExchange exchange) {
+        Long nanos = exchange.getAttribute(UPSTREAM_NANOS_ATTR);
+        return nanos != null ? nanos : -1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.petify.gateway.httpclient;
+
+import com.petify.gateway.config.HttpClientPoolProperties;
+import io.netty.resolver.AddressResolverGroup;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 按下游服务隔离的连接提供者
+ * 每个服务持有独立的固定容量连接池（Reactor Netty内部再按实例地址分池），
+ * 连接获取排队数与等待时间均有上限，单个服务变慢只会耗尽自身的连接与等待队列。
+ * 连接池指标以服务名为name标签导出（reactor.netty.connection.provider.*）
+ */
+public class ServiceConnectionProvider implements ConnectionProvider {
+
+    private static final String DEFAULT_POOL_NAME = "gateway-default";
+
+    private final HttpClientPoolProperties properties;
+    private final UpstreamServiceRegistry serviceRegistry;
+    private final ConnectionProvider defaultProvider;
+    private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+
+    public ServiceConnectionProvider(HttpClientPoolProperties properties, UpstreamServiceRegistry serviceRegistry) {
+        this.properties = properties;
+        this.serviceRegistry = serviceRegistry;
+        this.defaultProvider = build(DEFAULT_POOL_NAME, properties.getDefaults());
+    }
+
+    @Override
+    public Mono<? extends Connection> acquire(TransportConfig config, ConnectionObserver connectionObserver,
+                                              Supplier<? extends SocketAddress> remoteAddress,
+                                              AddressResolverGroup<?> resolverGroup) {
+        return select(remoteAddress).acquire(config, connectionObserver, remoteAddress, resolverGroup);
+    }
+
+    private ConnectionProvider select(Supplier<? extends SocketAddress> remoteAddress) {
+        var serviceId = remoteAddress != null ? serviceRegistry.serviceOf(remoteAddress.get()) : null;
+        if (serviceId == null) {
+            return defaultProvider;
+        }
+        return providers.computeIfAbsent(serviceId, id -> build(id, properties.resolve(id)));
+    }
+
+    private static ConnectionProvider build(String name, HttpClientPoolProperties.Pool pool) {
+        var builder = ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true);
+        return (pool.isLifo() ? builder.lifo() : builder.fifo()).build();
+    }
+
+    @Override
+    public Mono<Void> disposeLater() {
+        return Mono.defer(() -> {
+            var disposals = providers.values().stream().map(ConnectionProvider::disposeLater).toList();
+            return Mono.whenDelayError(disposals).and(defaultProvider.disposeLater());
+        });
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return defaultProvider.isDisposed();
+    }
+
+    @Override
+    public int maxConnections() {
+        return properties.getDefaults().getMaxConnections();
+    }
+}
@@ -0,0 +1,79 @@
+package com.petify.gateway.httpclient;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * 上游实例归属登记全局过滤器
+ * 在负载均衡选出实例后记录 实例地址 -> 服务名 的映射，供连接池按服务选择独立的连接池
+ */
+@Component
+public class UpstreamServiceRegistry implements GlobalFilter, Ordered {
+
+    /**
+     * 紧随负载均衡过滤器执行，此时请求URL已替换为实例地址
+     */
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    /**
+     * 长期未访问的实例（已下线或被替换）自动移出映射
+     */
+    private final Cache<String, String> services = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .maximumSize(10_000)
+            .build();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (route != null && requestUrl != null && "lb".equals(route.getUri().getScheme())) {
+            var key = key(requestUrl.getHost(), port(requestUrl));
+            var serviceId = route.getUri().getHost();
+            if (!serviceId.equals(services.getIfPresent(key))) {
+                services.put(key, serviceId);
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * 查询实例地址所属的服务名，非负载均衡路由的地址返回null
+     */
+    public String serviceOf(SocketAddress address) {
+        if (address instanceof InetSocketAddress inet) {
+            return services.getIfPresent(key(inet.getHostString(), inet.getPort()));
+        }
+        return null;
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() > 0) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private static String key(String host, int port) {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,315 @@
+package com.petify.gateway.idempotency;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petify.gateway.config.IdempotencyProperties;
+import com.petify.gateway.filter.CapturingResponseDecorator;
+import com.petify.gateway.filter.JwtAuthenticationFilter;
+import com.petify.gateway.retry.BudgetedRetryGatewayFilterFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key响应重放过滤器工厂
+ * 携带Idempotency-Key的写请求：首个请求在Redis中占位（处理中），完成后保存完整响应；
+ * 重复请求（方法、路径与请求体摘要一致）直接重放已保存的响应，不再访问后端；同一Key用于不同请求时返回422。
+ * 同一网关实例内并发的重复请求合并到同一次上游调用，其他实例上的并发重复请求轮询Redis等待结果。
+ * Redis不可用时直接转发（fail open）
+ */
+@Slf4j
+@Component
+public class IdempotencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<IdempotencyGatewayFilterFactory.Config> {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * 需先于NettyWriteResponseFilter执行，才能截获写回客户端的响应体
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    /**
+     * 不随响应保存的头：逐跳头及按当次请求计算的限流头
+     */
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            "transfer-encoding", "content-length", "connection", "keep-alive", "date", "retry-after");
+
+    private static final StoredResponse ABSENT = new StoredResponse(null, -1, Map.of(), new byte[0]);
+    private static final StoredResponse UNAVAILABLE = new StoredResponse(null, -1, Map.of(), new byte[0]);
+
+    private final IdempotencyProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 本实例内处理中的请求，Key为Redis Key
+     */
+    private final Map<String, Sinks.One<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyGatewayFilterFactory(IdempotencyProperties properties,
+                                           ReactiveStringRedisTemplate redisTemplate,
+                                           ObjectMapper objectMapper) {
+        super(Config.class);
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            var request = exchange.getRequest();
+            var idempotencyKey = request.getHeaders().getFirst(BudgetedRetryGatewayFilterFactory.IDEMPOTENCY_KEY_HEADER);
+            if (!properties.isEnabled() || idempotencyKey == null
+                    || !properties.getMethods().contains(request.getMethod().name())) {
+                return chain.filter(exchange);
+            }
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > properties.getMaxKeyLength()) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Idempotency-Key"));
+            }
+
+            var redisKey = redisKey(request, idempotencyKey);
+            return readBody(request)
+                    .flatMap(body -> {
+                        // 指纹包含请求体摘要：同一Key携带不同请求体时返回422，而不是重放首个响应
+                        var fingerprint = request.getMethod().name() + " " + request.getPath().value()
+                                + " " + DigestUtil.sha256Hex(body);
+                        var bufferFactory = exchange.getResponse().bufferFactory();
+                        var replayable = new ServerHttpRequestDecorator(request) {
+                            @Override
+                            public Flux<DataBuffer> getBody() {
+                                return Flux.defer(() -> Flux.just(bufferFactory.wrap(body)));
+                            }
+                        };
+                        return handle(exchange.mutate().request(replayable).build(), chain, redisKey, fingerprint, true);
+                    });
+        }, ORDER);
+    }
+
+    /**
+     * 读取完整请求体用于计算指纹，超过 max-request-body-size 时返回413
+     */
+    private Mono<byte[]> readBody(ServerHttpRequest request) {
+        int maxBytes = (int) Math.min(properties.getMaxRequestBodySize().toBytes(), Integer.MAX_VALUE);
+        return DataBufferUtils.join(request.getBody(), maxBytes)
+                .map(buffer -> {
+                    var bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .onErrorMap(DataBufferLimitException.class, e -> new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Request body too large for an Idempotency-Key request"));
+    }
+
+    private Mono<Void> handle(ServerWebExchange exchange, GatewayFilterChain chain,
+                              String redisKey, String fingerprint, boolean firstAttempt) {
+        var sink = Sinks.<StoredResponse>one();
+        var existing = inFlight.putIfAbsent(redisKey, sink);
+        if (existing != null) {
+            // 本实例已有相同Key的请求在处理，等待其结果
+            return existing.asMono()
+                    .timeout(properties.getWaitTimeout())
+                    .flatMap(stored -> replay(exchange, stored, fingerprint))
+                    .onErrorResume(TimeoutException.class, e -> Mono.error(stillProcessing()))
+                    .onErrorResume(AbandonedException.class, e -> firstAttempt
+                            ? handle(exchange, chain, redisKey, fingerprint, false)
+                            : Mono.error(stillProcessing()));
+        }
+
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        return lead(exchange, chain, redisKey, fingerprint, sink, deadline)
+                .doFinally(signal -> {
+                    inFlight.remove(redisKey, sink);
+                    sink.tryEmitError(new AbandonedException());
+                });
+    }
+
+    /**
+     * 本实例内的首个请求：在Redis中占位后转发，或等待其他实例的处理结果
+     */
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String redisKey,
+                            String fingerprint, Sinks.One<StoredResponse> sink, long deadline) {
+        return redisTemplate.opsForValue()
+                .setIfAbsent(redisKey, encode(StoredResponse.processing(fingerprint)), properties.getLockTtl())
+                .map(acquired -> acquired ? Acquisition.ACQUIRED : Acquisition.TAKEN)
+                .onErrorResume(e -> {
+                    log.warn("Idempotency store unavailable, forwarding without replay protection: {}", e.toString());
+                    return Mono.just(Acquisition.UNAVAILABLE);
+                })
+                .flatMap(acquisition -> switch (acquisition) {
+                    case ACQUIRED -> forward(exchange, chain, redisKey, fingerprint, sink);
+                    case TAKEN -> awaitStored(exchange, chain, redisKey, fingerprint, sink, deadline);
+                    case UNAVAILABLE -> chain.filter(exchange);
+                });
+    }
+
+    private Mono<Void> awaitStored(ServerWebExchange exchange, GatewayFilterChain chain, String redisKey,
+                                   String fingerprint, Sinks.One<StoredResponse> sink, long deadline) {
+        return redisTemplate.opsForValue().get(redisKey)
+                .map(this::decode)
+                .defaultIfEmpty(ABSENT)
+                .onErrorResume(e -> {
+                    log.warn("Idempotency store unavailable, forwarding without replay protection: {}", e.toString());
+                    return Mono.just(UNAVAILABLE);
+                })
+                .flatMap(stored -> {
+                    if (stored == UNAVAILABLE) {
+                        return chain.filter(exchange);
+                    }
+                    if (stored != ABSENT && !fingerprint.equals(stored.fingerprint())) {
+                        return Mono.error(fingerprintMismatch());
+                    }
+                    if (stored != ABSENT && !stored.isProcessing()) {
+                        sink.tryEmitValue(stored);
+                        return replay(exchange, stored, fingerprint);
+                    }
+                    if (System.nanoTime() - deadline >= 0) {
+                        return Mono.error(stillProcessing());
+                    }
+                    // Key已释放时重新占位，否则稍后再查
+                    return stored == ABSENT
+                            ? lead(exchange, chain, redisKey, fingerprint, sink, deadline)
+                            : Mono.delay(properties.getPollInterval())
+                                    .then(awaitStored(exchange, chain, redisKey, fingerprint, sink, deadline));
+                });
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, String redisKey,
+                               String fingerprint, Sinks.One<StoredResponse> sink) {
+        var capture = new CapturingResponseDecorator(exchange.getResponse(), properties.getMaxBodySize().toBytes());
+        return chain.filter(exchange.mutate().response(capture).build())
+                .then(Mono.defer(() -> {
+                    var status = capture.getStatusCode();
+                    var body = capture.capturedBody();
+                    // 5xx、限流拒绝及过大的响应不保存，释放Key允许客户端重试
+                    if (status == null || status.is5xxServerError()
+                            || status.value() == HttpStatus.TOO_MANY_REQUESTS.value() || body == null) {
+                        return release(redisKey);
+                    }
+                    var stored = new StoredResponse(fingerprint, status.value(), replayableHeaders(capture.getHeaders()), body);
+                    sink.tryEmitValue(stored);
+                    return redisTemplate.opsForValue()
+                            .set(redisKey, encode(stored), properties.getTtl())
+                            .doOnError(e -> log.warn("Failed to store idempotent response: {}", e.toString()))
+                            .onErrorResume(e -> Mono.just(false))
+                            .then();
+                }))
+                .onErrorResume(e -> release(redisKey).then(Mono.error(e)))
+                .doOnCancel(() -> release(redisKey).subscribe());
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, StoredResponse stored, String fingerprint) {
+        if (!fingerprint.equals(stored.fingerprint())) {
+            return Mono.error(fingerprintMismatch());
+        }
+        log.debug("Replaying stored response for {}", fingerprint);
+        var response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(stored.status()));
+        stored.headers().forEach(response.getHeaders()::put);
+        response.getHeaders().set(REPLAYED_HEADER, "true");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(stored.body())));
+    }
+
+    private Mono<Void> release(String redisKey) {
+        return redisTemplate.delete(redisKey)
+                .onErrorResume(e -> Mono.just(0L))
+                .then();
+    }
+
+    /**
+     * Key按用户隔离，避免不同用户使用相同Idempotency-Key时互相重放
+     */
+    private String redisKey(ServerHttpRequest request, String idempotencyKey) {
+        var userId = request.getHeaders().getFirst(JwtAuthenticationFilter.HEADER_USER_ID);
+        var principal = userId != null ? userId : "anonymous";
+        return properties.getKeyPrefix() + ":" + principal + ":" + DigestUtil.sha256Hex(idempotencyKey);
+    }
+
+    private static Map<String, List<String>> replayableHeaders(HttpHeaders headers) {
+        Map<String, List<String>> replayable = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            var lowerName = name.toLowerCase(Locale.ROOT);
+            if (!EXCLUDED_HEADERS.contains(lowerName)
+                    && !lowerName.startsWith("ratelimit-") && !lowerName.startsWith("x-ratelimit-")) {
+                replayable.put(name, List.copyOf(values));
+            }
+        });
+        return replayable;
+    }
+
+    private String encode(StoredResponse stored) {
+        try {
+            return objectMapper.writeValueAsString(stored);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotent response", e);
+        }
+    }
+
+    private StoredResponse decode(String value) {
+        try {
+            return objectMapper.readValue(value, StoredResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable idempotent response: {}", e.getMessage());
+            return ABSENT;
+        }
+    }
+
+    private static ResponseStatusException stillProcessing() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still being processed");
+    }
+
+    private static ResponseStatusException fingerprintMismatch() {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key has already been used for a different request");
+    }
+
+    /**
+     * 过滤器配置类，参数由 gateway.idempotency 统一配置
+     */
+    public static class Config {
+    }
+
+    private enum Acquisition {
+        ACQUIRED, TAKEN, UNAVAILABLE
+    }
+
+    /**
+     * 首个请求未产生可重放的响应
+     */
+    private static class AbandonedException extends RuntimeException {
+        AbandonedException() {
+            super("Idempotent request finished without a replayable response", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.petify.gateway.idempotency;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis中保存的幂等请求状态
+ * status为0表示首个请求仍在处理中，否则为可重放的完整响应
+ *
+ * @param fingerprint 请求指纹（方法+路径），同一Key用于不同请求时拒绝
+ */
+record StoredResponse(String fingerprint, int status, Map<String, List<String>> headers, byte[] body) {
+
+    static StoredResponse processing(String fingerprint) {
+        return new StoredResponse(fingerprint, 0, Map.of(), new byte[0]);
+    }
+
+    @JsonIgnore
+    boolean isProcessing() {
+        return status == 0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.petify.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个上游实例的负载统计：Peak EWMA 延迟与在途请求数
+ * 延迟样本高于当前估计时直接取样本值（对变慢快速响应），低于时按经过时间指数衰减
+ */
+class InstanceLoad {
+
+    private final long decayNanos;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double ewmaNanos;
+    private long lastSampleNanos;
+    private boolean sampled;
+
+    InstanceLoad(long decayNanos, long initialNanos) {
+        this.decayNanos = decayNanos;
+        this.ewmaNanos = initialNanos;
+    }
+
+    void start() {
+        inflight.incrementAndGet();
+    }
+
+    void end() {
+        inflight.decrementAndGet();
+    }
+
+    synchronized void observe(long latencyNanos) {
+        long now = System.nanoTime();
+        if (!sampled || latencyNanos > ewmaNanos) {
+            ewmaNanos = latencyNanos;
+            sampled = true;
+        } else {
+            double weight = Math.exp(-(double) (now - lastSampleNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastSampleNanos = now;
+    }
+
+    /**
+     * 选择代价：延迟估计 × (在途请求数 + 1)
+     */
+    double cost() {
+        return ewmaNanos * (inflight.get() + 1);
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    double ewmaNanos() {
+        return ewmaNanos;
+    }
+}
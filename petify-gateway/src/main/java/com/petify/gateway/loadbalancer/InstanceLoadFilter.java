@@ -0,0 +1,83 @@
+package com.petify.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 实例负载采集全局过滤器
+ * 在负载均衡选出实例后统计在途请求数，并将转发到收到响应头的耗时与成败反馈给负载均衡器及实例级熔断；
+ * 重试时每次转发都会重新选择实例并单独计入，客户端取消的请求不计入熔断统计
+ */
+@Component
+public class InstanceLoadFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 位于负载均衡过滤器与实例归属登记之后
+     */
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 2;
+
+    private final InstanceLoadRegistry registry;
+    private final InstanceOutlierDetector outlierDetector;
+
+    public InstanceLoadFilter(InstanceLoadRegistry registry, InstanceOutlierDetector outlierDetector) {
+        this.registry = registry;
+        this.outlierDetector = outlierDetector;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+        var instance = lbResponse.getServer();
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            registry.start(instance);
+            var error = new AtomicReference<Throwable>();
+            return chain.filter(exchange)
+                    .doOnError(error::set)
+                    .doFinally(signal -> {
+                        long elapsed = System.nanoTime() - start;
+                        var failure = error.get() != null ? error.get() : serverError(exchange);
+                        registry.end(instance, elapsed, failure != null);
+                        if (failure != null) {
+                            outlierDetector.onFailure(instance, elapsed, failure);
+                        } else if (signal != SignalType.CANCEL) {
+                            outlierDetector.onSuccess(instance, elapsed);
+                        }
+                    });
+        });
+    }
+
+    private static Throwable serverError(ServerWebExchange exchange) {
+        var status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError() ? new UpstreamServerErrorException(status.value()) : null;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * 上游返回5xx，计为实例失败
+     */
+    private static class UpstreamServerErrorException extends RuntimeException {
+        UpstreamServerErrorException(int status) {
+            super("Upstream responded with " + status, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.petify.gateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petify.gateway.config.LoadBalancingProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 上游实例负载统计登记表
+ * 以 host:port 标识实例，长期未被选中的实例（已下线）自动移除
+ */
+@Component
+public class InstanceLoadRegistry {
+
+    private final LoadBalancingProperties properties;
+    private final Cache<String, InstanceLoad> loads = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(10_000)
+            .build();
+
+    public InstanceLoadRegistry(LoadBalancingProperties properties) {
+        this.properties = properties;
+    }
+
+    InstanceLoad get(ServiceInstance instance) {
+        return loads.get(key(instance), key -> new InstanceLoad(
+                properties.getDecayTime().toNanos(), properties.getInitialLatency().toNanos()));
+    }
+
+    /**
+     * 请求开始转发到实例
+     */
+    public void start(ServiceInstance instance) {
+        get(instance).start();
+    }
+
+    /**
+     * 请求结束，记录成功转发的延迟；失败时延迟样本不低于 failure-penalty
+     */
+    public void end(ServiceInstance instance, long latencyNanos, boolean failed) {
+        var load = get(instance);
+        load.end();
+        load.observe(failed ? Math.max(latencyNanos, properties.getFailurePenalty().toNanos()) : latencyNanos);
+    }
+
+    static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,148 @@
+package com.petify.gateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petify.gateway.config.OutlierDetectionProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上游实例异常检测
+ * 为每个实例维护独立的Resilience4j熔断器，熔断（剔除）中的实例不参与负载均衡；
+ * 剔除与恢复事件记录日志并导出为 gateway.outlier.transition 指标
+ */
+@Slf4j
+@Component
+public class InstanceOutlierDetector {
+
+    private static final String METRIC_NAME = "gateway.outlier.transition";
+
+    private final OutlierDetectionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerConfig breakerConfig;
+    private final Cache<String, CircuitBreaker> breakers = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(10_000)
+            .build();
+
+    public InstanceOutlierDetector(OutlierDetectionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.breakerConfig = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDurationThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .waitDurationInOpenState(properties.getEjectionTime())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                // 已放行的探测请求未被转发时，避免实例永久停留在半开状态
+                .maxWaitDurationInHalfOpenState(properties.getEjectionTime())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+    }
+
+    /**
+     * 过滤掉被剔除的实例；被剔除的实例最多占 max-ejection-percent，
+     * 超出部分按失败率（或慢调用率）从低到高重新纳入，只保留最差的实例处于剔除状态
+     */
+    public List<ServiceInstance> available(List<ServiceInstance> instances) {
+        if (!properties.isEnabled()) {
+            return instances;
+        }
+        List<ServiceInstance> available = new ArrayList<>(instances.size());
+        List<ServiceInstance> ejected = new ArrayList<>();
+        for (ServiceInstance instance : instances) {
+            if (isEjected(breaker(instance).getState())) {
+                ejected.add(instance);
+            } else {
+                available.add(instance);
+            }
+        }
+        if (ejected.isEmpty()) {
+            return instances;
+        }
+        int maxEjected = instances.size() * properties.getMaxEjectionPercent() / 100;
+        if (ejected.size() <= maxEjected) {
+            return available.isEmpty() ? instances : available;
+        }
+        ejected.sort(Comparator.comparingDouble((ServiceInstance instance) -> badness(breaker(instance))).reversed());
+        available.addAll(ejected.subList(maxEjected, ejected.size()));
+        return available;
+    }
+
+    /**
+     * 为选中的实例申请调用许可；半开状态下探测请求数已满时返回false，调用方仅在存在其他可放行实例时据此改投。
+     * 仍处于剔除状态却出现在候选列表中的实例是因剔除比例上限被重新纳入的，直接放行
+     */
+    public boolean tryAcquire(ServiceInstance instance) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        var breaker = breaker(instance);
+        return isEjected(breaker.getState()) || breaker.tryAcquirePermission();
+    }
+
+    public void onSuccess(ServiceInstance instance, long durationNanos) {
+        if (properties.isEnabled()) {
+            breaker(instance).onSuccess(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void onFailure(ServiceInstance instance, long durationNanos, Throwable error) {
+        if (properties.isEnabled()) {
+            breaker(instance).onError(durationNanos, TimeUnit.NANOSECONDS, error);
+        }
+    }
+
+    private CircuitBreaker breaker(ServiceInstance instance) {
+        return breakers.get(InstanceLoadRegistry.key(instance), key -> {
+            var breaker = CircuitBreaker.of(instance.getServiceId() + "@" + key, breakerConfig);
+            breaker.getEventPublisher().onStateTransition(event -> onTransition(instance.getServiceId(), key, event));
+            return breaker;
+        });
+    }
+
+    private void onTransition(String serviceId, String instance, CircuitBreakerOnStateTransitionEvent event) {
+        var transition = event.getStateTransition();
+        var outcome = switch (transition.getToState()) {
+            case OPEN, FORCED_OPEN -> "ejected";
+            case HALF_OPEN -> "probing";
+            default -> "recovered";
+        };
+        if ("ejected".equals(outcome)) {
+            log.warn("Ejected instance {} of {} ({})", instance, serviceId, transition);
+        } else {
+            log.info("Instance {} of {} is {} ({})", instance, serviceId, outcome, transition);
+        }
+        Counter.builder(METRIC_NAME)
+                .description("Gateway per-instance circuit breaker transitions")
+                .tag("service", serviceId)
+                .tag("upstream", instance)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static float badness(CircuitBreaker breaker) {
+        var metrics = breaker.getMetrics();
+        return Math.max(metrics.getFailureRate(), metrics.getSlowCallRate());
+    }
+
+    private static boolean isEjected(CircuitBreaker.State state) {
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+}
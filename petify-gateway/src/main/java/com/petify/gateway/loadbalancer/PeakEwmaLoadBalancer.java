@@ -0,0 +1,83 @@
+package com.petify.gateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 延迟感知负载均衡器
+ * 随机选取两个实例，取 Peak EWMA 延迟 × (在途请求数 + 1) 较小者（power of two choices）；
+ * 相比全局最优选择，P2C 避免了所有网关实例同时涌向同一个"最快"实例。
+ * 被实例级熔断剔除的实例不参与选择
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final InstanceLoadRegistry registry;
+    private final InstanceOutlierDetector outlierDetector;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                                InstanceLoadRegistry registry, InstanceOutlierDetector outlierDetector) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.registry = registry;
+        this.outlierDetector = outlierDetector;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        var supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::select);
+    }
+
+    private Response<ServiceInstance> select(List<ServiceInstance> discovered) {
+        if (discovered.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        var instances = outlierDetector.available(discovered);
+        if (instances.size() == 1) {
+            // 没有可改投的实例：半开实例探测名额已满也照常放行，恢复期间不产生503
+            var instance = instances.get(0);
+            outlierDetector.tryAcquire(instance);
+            return new DefaultResponse(instance);
+        }
+        var random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        var a = instances.get(first);
+        var b = instances.get(second);
+        var preferred = registry.get(a).cost() <= registry.get(b).cost() ? a : b;
+        var other = preferred == a ? b : a;
+        // 半开实例的探测名额已满时改选另一个实例
+        if (outlierDetector.tryAcquire(preferred)) {
+            return new DefaultResponse(preferred);
+        }
+        if (outlierDetector.tryAcquire(other)) {
+            return new DefaultResponse(other);
+        }
+        // 两者都在等待探测结果时改投任一可放行的实例；都不可放行时说明没有健康的替代实例，仍然放行
+        for (var instance : instances) {
+            if (instance != preferred && instance != other && outlierDetector.tryAcquire(instance)) {
+                return new DefaultResponse(instance);
+            }
+        }
+        return new DefaultResponse(preferred);
+    }
+}
@@ -0,0 +1,91 @@
+package com.petify.gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路由过滤器阶段耗时统计
+ * 在被测过滤器前后各放置一个标记过滤器，记录该过滤器的决策耗时（gateway.filter.stage）：
+ * 请求通过时outcome为passed；被拦截（限流拒绝、熔断降级等）时outcome为short_circuited，耗时截至请求结束
+ */
+@Component
+@RequiredArgsConstructor
+public class FilterStageTimer {
+
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(1_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(1);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<StageKey, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * 放在被测过滤器之前
+     */
+    public GatewayFilter enter(String stage) {
+        var startAttr = startAttribute(stage);
+        var passedAttr = passedAttribute(stage);
+        return (exchange, chain) -> {
+            long start = System.nanoTime();
+            exchange.getAttributes().put(startAttr, start);
+            return chain.filter(exchange).doFinally(signal -> {
+                if (exchange.getAttribute(passedAttr) == null) {
+                    timer(routeId(exchange), stage, "short_circuited")
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        };
+    }
+
+    /**
+     * 放在被测过滤器之后
+     */
+    public GatewayFilter exit(String stage) {
+        var startAttr = startAttribute(stage);
+        var passedAttr = passedAttribute(stage);
+        return (exchange, chain) -> {
+            Long start = exchange.getAttribute(startAttr);
+            if (start != null && exchange.getAttributes().putIfAbsent(passedAttr, Boolean.TRUE) == null) {
+                timer(routeId(exchange), stage, "passed").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    private Timer timer(String routeId, String stage, String outcome) {
+        return timers.computeIfAbsent(new StageKey(routeId, stage, outcome), key -> Timer.builder("gateway.filter.stage")
+                .tag("route", key.routeId())
+                .tag("stage", key.stage())
+                .tag("outcome", key.outcome())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry));
+    }
+
+    private static String startAttribute(String stage) {
+        return FilterStageTimer.class.getName() + "." + stage + ".start";
+    }
+
+    private static String passedAttribute(String stage) {
+        return FilterStageTimer.class.getName() + "." + stage + ".passed";
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "none";
+    }
+
+    private record StageKey(String routeId, String stage, String outcome) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.petify.gateway.metrics;
+
+import com.petify.gateway.accesslog.AccessLogFilter;
+import com.petify.gateway.filter.UpstreamTimingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 路由级延迟指标全局过滤器
+ * 按路由与状态类别记录总耗时（gateway.route.duration）、网关自身耗时（gateway.route.gateway），
+ * 并按上游实例记录上游耗时（gateway.route.upstream），均发布直方图供Prometheus计算p50/p99
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 紧随访问日志过滤器执行，覆盖认证、限流等全部网关处理耗时
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Timer缓存，避免每个请求重新构建Meter ID
+     */
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        // 在doFinally中记录，客户端取消的请求按499计入直方图
+        var error = new AtomicReference<Throwable>();
+        return chain.filter(exchange)
+                .doOnError(error::set)
+                .doFinally(signal -> record(exchange, start,
+                        (AccessLogFilter.statusOf(exchange, signal, error.get()) / 100) + "xx"));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private void record(ServerWebExchange exchange, long start, String statusClass) {
+        long duration = System.nanoTime() - start;
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        var routeId = route != null ? route.getId() : "none";
+
+        timer("gateway.route.duration", routeId, statusClass, null).record(duration, TimeUnit.NANOSECONDS);
+
+        long upstream = UpstreamTimingFilter.upstreamNanos(exchange);
+        if (upstream >= 0) {
+            timer("gateway.route.upstream", routeId, statusClass, upstreamInstance(exchange))
+                    .record(upstream, TimeUnit.NANOSECONDS);
+            timer("gateway.route.gateway", routeId, statusClass, null)
+                    .record(Math.max(duration - upstream, 0), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String name, String routeId, String statusClass, String upstream) {
+        return timers.computeIfAbsent(new TimerKey(name, routeId, statusClass, upstream), key -> {
+            var builder = Timer.builder(key.name())
+                    .tag("route", key.routeId())
+                    .tag("status", key.statusClass())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(MIN_EXPECTED)
+                    .maximumExpectedValue(MAX_EXPECTED);
+            if (key.upstream() != null) {
+                builder.tag("upstream", key.upstream());
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    /**
+     * 负载均衡解析后的上游实例地址（host:port）
+     */
+    private static String upstreamInstance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        return url != null && url.getHost() != null ? url.getHost() + ":" + url.getPort() : "unknown";
+    }
+
+    private record TimerKey(String name, String routeId, String statusClass, String upstream) {
+    }
+}
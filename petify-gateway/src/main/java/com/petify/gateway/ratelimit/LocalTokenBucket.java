@@ -0,0 +1,107 @@
+package com.petify.gateway.ratelimit;
+
+import com.petify.gateway.config.RateLimitProperties;
+
+/**
+ * 单个限流Key的本地令牌桶
+ * 记录本地已放行但尚未同步到Redis的令牌消耗（pending），由同步任务批量上报
+ */
+class LocalTokenBucket {
+
+    private final String redisKey;
+    private volatile RateLimitProperties.Policy policy;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pending;
+
+    LocalTokenBucket(String redisKey, RateLimitProperties.Policy policy) {
+        this.redisKey = redisKey;
+        this.policy = policy;
+        this.tokens = policy.getBurstCapacity();
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    String redisKey() {
+        return redisKey;
+    }
+
+    RateLimitProperties.Policy policy() {
+        return policy;
+    }
+
+    /**
+     * 剩余令牌充足（高于容量的threshold比例）时本地放行
+     */
+    synchronized boolean tryConsumeLocally(RateLimitProperties.Policy current, double threshold) {
+        this.policy = current;
+        refill(current);
+        int requested = current.getRequestedTokens();
+        if (tokens - requested < current.getBurstCapacity() * threshold) {
+            return false;
+        }
+        consume(requested);
+        return true;
+    }
+
+    /**
+     * 仅本地模式：Redis不可用时按本地令牌判断
+     */
+    synchronized boolean tryConsume(RateLimitProperties.Policy current) {
+        this.policy = current;
+        refill(current);
+        int requested = current.getRequestedTokens();
+        if (tokens < requested) {
+            return false;
+        }
+        consume(requested);
+        return true;
+    }
+
+    /**
+     * 取出待同步的本地消耗量
+     */
+    synchronized long drainPending() {
+        long drained = pending;
+        pending = 0;
+        return drained;
+    }
+
+    /**
+     * 同步失败时归还待同步消耗，留待下次上报
+     */
+    synchronized void restorePending(long amount) {
+        pending += amount;
+    }
+
+    synchronized boolean hasPending() {
+        return pending > 0;
+    }
+
+    /**
+     * 以Redis中的全局剩余令牌校准本地桶，扣除同步期间新增的本地消耗
+     */
+    synchronized void reconcile(double remoteRemaining) {
+        tokens = Math.max(0, Math.min(remoteRemaining - pending, policy.getBurstCapacity()));
+        lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 当前剩余令牌（含小数部分，用于计算补满时间）
+     */
+    synchronized double available() {
+        return tokens;
+    }
+
+    private void consume(int requested) {
+        tokens -= requested;
+        pending += requested;
+    }
+
+    private void refill(RateLimitProperties.Policy current) {
+        long now = System.nanoTime();
+        double refilled = (now - lastRefillNanos) / 1_000_000_000.0 * current.getReplenishRate();
+        tokens = Math.min(current.getBurstCapacity(), tokens + refilled);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,242 @@
+package com.petify.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petify.gateway.config.RateLimitProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 两级令牌桶限流器
+ * 本地令牌桶吸收明显低于限额的流量（不访问Redis），本地消耗定期批量同步到Redis；
+ * 接近限额时才同步调用Redis做全局判定。Redis超时或异常时在一段时间内降级为仅本地限流（fail open）。
+ * 策略按路由及Key类别（user/ip）解析，见{@link RateLimitProperties#resolve(String, String)}
+ */
+@Slf4j
+public class TieredRateLimiter implements RateLimiter<RateLimitProperties.Policy> {
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    /**
+     * draft-ietf-httpapi-ratelimit-headers 标准头，Reset为令牌桶补满所需秒数
+     */
+    public static final String RATE_LIMIT_LIMIT_HEADER = "RateLimit-Limit";
+    public static final String RATE_LIMIT_REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RATE_LIMIT_RESET_HEADER = "RateLimit-Reset";
+    public static final String RATE_LIMIT_POLICY_HEADER = "RateLimit-Policy";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    /**
+     * KEYS[1]: 令牌桶哈希；ARGV: 补充速率、容量、已在本地放行需强制扣除的令牌数、本次请求令牌数
+     * 返回 {是否放行, 剩余令牌}；时间取Redis服务器时间，避免各网关实例时钟偏差
+     */
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = RedisScript.of("""
+            local rate = tonumber(ARGV[1])
+            local capacity = tonumber(ARGV[2])
+            local consumed = tonumber(ARGV[3])
+            local requested = tonumber(ARGV[4])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+            tokens = math.max(0, tokens - consumed)
+            local allowed = 0
+            if tokens >= requested then
+                tokens = tokens - requested
+                allowed = 1
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate * 2000))
+            return { allowed, tostring(tokens) }
+            """, List.class);
+
+    private final RateLimitProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Cache<String, LocalTokenBucket> buckets;
+
+    private volatile long degradedUntilNanos;
+    private Disposable syncTask;
+
+    public TieredRateLimiter(RateLimitProperties properties, ReactiveStringRedisTemplate redisTemplate) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getLocal().getMaximumBuckets())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.getLocal().isEnabled()) {
+            return;
+        }
+        syncTask = Flux.interval(properties.getLocal().getSyncInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> syncPending(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncTask != null) {
+            syncTask.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        if (!properties.getGlobal().isEnabled()) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+
+        var policy = properties.resolve(routeId, keyClass(id));
+        var redisKey = properties.getGlobal().getKeyPrefix() + ":" + routeId + ":" + id;
+        var bucket = buckets.get(redisKey, key -> new LocalTokenBucket(key, policy));
+        var local = properties.getLocal();
+
+        if (local.isEnabled() && bucket.tryConsumeLocally(policy, local.getLocalThreshold())) {
+            return Mono.just(response(true, bucket.available(), policy));
+        }
+        if (isDegraded()) {
+            return Mono.just(localDecision(bucket, policy));
+        }
+
+        long consumed = bucket.drainPending();
+        return evaluate(bucket.redisKey(), policy, consumed, policy.getRequestedTokens())
+                .map(result -> {
+                    bucket.reconcile(result.remaining());
+                    return response(result.allowed(), result.remaining(), policy);
+                })
+                .onErrorResume(e -> {
+                    bucket.restorePending(consumed);
+                    markDegraded(e);
+                    return Mono.just(localDecision(bucket, policy));
+                });
+    }
+
+    @Override
+    public Map<String, RateLimitProperties.Policy> getConfig() {
+        return Map.of();
+    }
+
+    @Override
+    public Class<RateLimitProperties.Policy> getConfigClass() {
+        return RateLimitProperties.Policy.class;
+    }
+
+    @Override
+    public RateLimitProperties.Policy newConfig() {
+        return new RateLimitProperties.Policy();
+    }
+
+    /**
+     * 批量上报本地已放行的消耗，并以全局剩余令牌校准本地桶
+     */
+    private Mono<Void> syncPending() {
+        if (isDegraded()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(buckets.asMap().values())
+                .filter(LocalTokenBucket::hasPending)
+                .flatMap(bucket -> {
+                    long consumed = bucket.drainPending();
+                    return evaluate(bucket.redisKey(), bucket.policy(), consumed, 0)
+                            .doOnNext(result -> bucket.reconcile(result.remaining()))
+                            .doOnError(e -> bucket.restorePending(consumed));
+                }, 16)
+                .then()
+                .onErrorResume(e -> {
+                    markDegraded(e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<BucketState> evaluate(String redisKey, RateLimitProperties.Policy policy, long consumed, int requested) {
+        var args = List.of(
+                String.valueOf(policy.getReplenishRate()),
+                String.valueOf(policy.getBurstCapacity()),
+                String.valueOf(consumed),
+                String.valueOf(requested));
+        return redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(redisKey), args)
+                .reduce(new ArrayList<Object>(), (values, value) -> {
+                    values.addAll(value);
+                    return values;
+                })
+                .timeout(properties.getLocal().getRedisTimeout())
+                .map(values -> new BucketState(
+                        Long.parseLong(String.valueOf(values.get(0))) == 1L,
+                        Double.parseDouble(String.valueOf(values.get(1)))));
+    }
+
+    private Response localDecision(LocalTokenBucket bucket, RateLimitProperties.Policy policy) {
+        boolean allowed = bucket.tryConsume(policy);
+        return response(allowed, bucket.available(), policy);
+    }
+
+    private boolean isDegraded() {
+        return System.nanoTime() - degradedUntilNanos < 0;
+    }
+
+    private void markDegraded(Throwable e) {
+        if (!isDegraded()) {
+            log.warn("Rate limiter falling back to local-only mode: {}", e.toString());
+        }
+        degradedUntilNanos = System.nanoTime() + properties.getLocal().getDegradedBackoff().toNanos();
+    }
+
+    /**
+     * 根据令牌桶实际状态生成限流响应头：放行与拒绝响应均携带，拒绝时额外给出Retry-After
+     */
+    private static Response response(boolean allowed, double tokens, RateLimitProperties.Policy policy) {
+        double rate = Math.max(policy.getReplenishRate(), 1);
+        long remaining = Math.max((long) tokens, 0);
+        long resetSeconds = (long) Math.ceil(Math.max(policy.getBurstCapacity() - tokens, 0) / rate);
+
+        Map<String, String> headers = new HashMap<>(12);
+        headers.put(REMAINING_HEADER, String.valueOf(remaining));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(policy.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(policy.getBurstCapacity()));
+        headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(policy.getRequestedTokens()));
+        headers.put(RATE_LIMIT_LIMIT_HEADER, String.valueOf(policy.getBurstCapacity()));
+        headers.put(RATE_LIMIT_REMAINING_HEADER, String.valueOf(remaining));
+        headers.put(RATE_LIMIT_RESET_HEADER, String.valueOf(resetSeconds));
+        headers.put(RATE_LIMIT_POLICY_HEADER, policy.getBurstCapacity() + ";w="
+                + (long) Math.ceil(policy.getBurstCapacity() / rate));
+        if (!allowed) {
+            // 等到足够本次请求的令牌补充完成即可重试，至少1秒
+            long retryAfter = (long) Math.ceil(Math.max(policy.getRequestedTokens() - tokens, 0) / rate);
+            headers.put(RETRY_AFTER_HEADER, String.valueOf(Math.max(retryAfter, 1)));
+        }
+        return new Response(allowed, headers);
+    }
+
+    /**
+     * Key格式为 "类别:标识"，如 user:42、ip:10.0.0.1
+     */
+    private static String keyClass(String id) {
+        int separator = id.indexOf(':');
+        return separator > 0 ? id.substring(0, separator) : null;
+    }
+
+    private record BucketState(boolean allowed, double remaining) {
+    }
+}
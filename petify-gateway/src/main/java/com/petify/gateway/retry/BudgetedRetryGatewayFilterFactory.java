@@ -0,0 +1,206 @@
+package com.petify.gateway.retry;
+
+import com.petify.gateway.config.RetryProperties;
+import com.petify.gateway.route.RouteTableChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 幂等感知的预算重试过滤器工厂
+ * 仅重试幂等方法（GET/HEAD/OPTIONS/PUT/DELETE）或携带Idempotency-Key的请求；
+ * 采用带抖动的指数退避，并受路由级重试预算约束，重试结果导出为 gateway.retry 指标
+ */
+@Slf4j
+@Component
+public class BudgetedRetryGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<BudgetedRetryGatewayFilterFactory.Config> {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private static final String METRIC_NAME = "gateway.retry";
+
+    private final RetryProperties retryProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public BudgetedRetryGatewayFilterFactory(RetryProperties retryProperties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.retryProperties = retryProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            if (!retryProperties.isEnabled()) {
+                return chain.filter(exchange);
+            }
+
+            var routeId = routeId(exchange);
+            var policy = retryProperties.resolve(routeId);
+            var budget = budgets.computeIfAbsent(routeId, id -> new RetryBudget(
+                    (int) policy.getBudgetWindow().toSeconds(), policy.getBudgetRatio(), policy.getMinRetriesPerSecond()));
+            budget.recordRequest();
+
+            var request = exchange.getRequest();
+            if (policy.getMaxRetries() <= 0 || !isRetryable(request)) {
+                return chain.filter(exchange);
+            }
+            if (hasBody(request.getHeaders())) {
+                // 缓存请求体以便重试时重放
+                return ServerWebExchangeUtils.cacheRequestBody(exchange, cached ->
+                        execute(exchange.mutate().request(cached).build(), chain, routeId, policy, budget));
+            }
+            return execute(exchange, chain, routeId, policy, budget);
+        };
+    }
+
+    /**
+     * 路由策略变化后按新策略重建重试预算
+     */
+    @EventListener
+    public void onRouteTableChanged(RouteTableChangedEvent event) {
+        event.getChangedRoutes().forEach(budgets::remove);
+    }
+
+    private Mono<Void> execute(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+                               RetryProperties.Policy policy, RetryBudget budget) {
+        var attempts = new AtomicInteger();
+        return Mono.defer(() -> {
+                    if (attempts.getAndIncrement() > 0) {
+                        reset(exchange);
+                    }
+                    return chain.filter(exchange).then(Mono.defer(() -> checkStatus(exchange, policy)));
+                })
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    var failure = signal.failure();
+                    if (!isRetryableFailure(failure, policy)) {
+                        return Mono.error(failure);
+                    }
+                    if (signal.totalRetries() >= policy.getMaxRetries()) {
+                        counter(routeId, "attempts_exhausted").increment();
+                        return Mono.error(failure);
+                    }
+                    if (!budget.tryAcquireRetry()) {
+                        counter(routeId, "budget_exhausted").increment();
+                        return Mono.error(failure);
+                    }
+                    counter(routeId, "retried").increment();
+                    var delay = backoff(signal.totalRetries(), policy);
+                    log.debug("Retrying {} {} on route {} in {}ms after {}", exchange.getRequest().getMethod(),
+                            exchange.getRequest().getPath(), routeId, delay.toMillis(), failure.toString());
+                    return Mono.delay(delay);
+                })))
+                // 重试耗尽后将最后一次上游响应原样返回给客户端
+                .onErrorResume(RetryableStatusException.class, e -> Mono.empty());
+    }
+
+    private static Mono<Void> checkStatus(ServerWebExchange exchange, RetryProperties.Policy policy) {
+        var response = exchange.getResponse();
+        var status = response.getStatusCode();
+        if (status != null && !response.isCommitted() && policy.getStatuses().contains(status.value())) {
+            return Mono.error(new RetryableStatusException(status.value()));
+        }
+        return Mono.empty();
+    }
+
+    private static boolean isRetryableFailure(Throwable failure, RetryProperties.Policy policy) {
+        if (failure instanceof RetryableStatusException) {
+            return true;
+        }
+        if (failure instanceof ResponseStatusException statusException) {
+            return policy.getStatuses().contains(statusException.getStatusCode().value());
+        }
+        return failure instanceof IOException || failure instanceof TimeoutException;
+    }
+
+    /**
+     * 指数退避加抖动：base = min(first × 2^n, max)，实际延迟在 [base × (1 - jitter), base] 间均匀分布
+     */
+    private static Duration backoff(long retry, RetryProperties.Policy policy) {
+        long first = policy.getFirstBackoff().toMillis();
+        long max = policy.getMaxBackoff().toMillis();
+        long base = Math.min(first << Math.min(retry, 20), max);
+        double jitter = Math.min(Math.max(policy.getJitter(), 0), 1);
+        long spread = (long) (base * jitter);
+        long delay = base - (spread > 0 ? ThreadLocalRandom.current().nextLong(spread + 1) : 0);
+        return Duration.ofMillis(delay);
+    }
+
+    /**
+     * 清理上一次转发留下的连接与响应头，使路由过滤器可以重新执行
+     */
+    private static void reset(ServerWebExchange exchange) {
+        Connection connection = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.channel().close();
+            connection.dispose();
+        }
+        ServerWebExchangeUtils.reset(exchange);
+    }
+
+    private static boolean isRetryable(ServerHttpRequest request) {
+        return IDEMPOTENT_METHODS.contains(request.getMethod())
+                || request.getHeaders().containsKey(IDEMPOTENCY_KEY_HEADER);
+    }
+
+    private static boolean hasBody(HttpHeaders headers) {
+        return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return Counter.builder(METRIC_NAME)
+                .description("Gateway retry decisions")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 过滤器配置类，重试参数由 gateway.retry 按路由解析
+     */
+    public static class Config {
+    }
+
+    /**
+     * 上游返回可重试状态码
+     */
+    private static class RetryableStatusException extends RuntimeException {
+        RetryableStatusException(int status) {
+            super("Upstream responded with " + status, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.petify.gateway.retry;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路由级重试预算
+ * 以秒为粒度的环形窗口统计近期请求数与重试数，重试数超过 请求数×比例 + 每秒保底×窗口秒数 时拒绝重试，
+ * 避免上游变慢时重试放大流量
+ */
+class RetryBudget {
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final double ratio;
+    private final long minRetries;
+
+    RetryBudget(int windowSeconds, double ratio, int minRetriesPerSecond) {
+        int size = Math.max(windowSeconds, 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.ratio = ratio;
+        this.minRetries = (long) minRetriesPerSecond * size;
+        for (int i = 0; i < size; i++) {
+            slots.set(i, new Slot(-1));
+        }
+    }
+
+    void recordRequest() {
+        slot(currentSecond()).requests.increment();
+    }
+
+    /**
+     * 预算充足时占用一次重试额度
+     */
+    boolean tryAcquireRetry() {
+        long now = currentSecond();
+        long requests = 0;
+        long retries = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            var slot = slots.get(i);
+            if (now - slot.second < slots.length()) {
+                requests += slot.requests.sum();
+                retries += slot.retries.sum();
+            }
+        }
+        if (retries >= minRetries + (long) (requests * ratio)) {
+            return false;
+        }
+        slot(now).retries.increment();
+        return true;
+    }
+
+    private Slot slot(long second) {
+        int index = (int) Math.floorMod(second, (long) slots.length());
+        var slot = slots.get(index);
+        while (slot.second < second) {
+            var fresh = new Slot(second);
+            if (slots.compareAndSet(index, slot, fresh)) {
+                return fresh;
+            }
+            slot = slots.get(index);
+        }
+        return slot;
+    }
+
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static final class Slot {
+        private final long second;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+
+        private Slot(long second) {
+            this.second = second;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.petify.gateway.route;
+
+import com.petify.gateway.config.ConcurrencyLimitProperties;
+import com.petify.gateway.config.RateLimitProperties;
+import com.petify.gateway.config.RetryProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 可热更新的路由定位器
+ * 路由表以带版本的不可变快照保存，更新时与当前快照逐条比对：定义未变化的路由沿用原Route对象，
+ * 仅编译新增与修改的路由，再原子替换快照并触发Gateway路由缓存刷新。
+ * 熔断器、连接池、限流桶均按名称/服务/路由ID登记，定义不变的路由状态不受影响
+ */
+@Slf4j
+public class DynamicRouteLocator implements RouteLocator {
+
+    private final RouteCompiler compiler;
+    private final RoutePolicies policies;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<RouteSnapshot> snapshot = new AtomicReference<>(RouteSnapshot.EMPTY);
+
+    public DynamicRouteLocator(RouteCompiler compiler, RateLimitProperties rateLimitProperties,
+                               RetryProperties retryProperties, ConcurrencyLimitProperties concurrencyLimitProperties,
+                               ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.compiler = compiler;
+        this.policies = new RoutePolicies(rateLimitProperties, retryProperties, concurrencyLimitProperties);
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("gateway.route-table.version", snapshot, ref -> ref.get().version())
+                .description("Version of the active gateway route table")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Flux<Route> getRoutes() {
+        return Flux.fromIterable(snapshot.get().routes().values());
+    }
+
+    public long version() {
+        return snapshot.get().version();
+    }
+
+    /**
+     * 应用路由表；版本不高于当前版本或校验失败时保持当前路由不变
+     *
+     * @return 是否已应用
+     */
+    public synchronized boolean apply(RouteTable table) {
+        var current = snapshot.get();
+        if (table.getVersion() <= current.version()) {
+            log.warn("Ignoring route table version {}, active version is {}", table.getVersion(), current.version());
+            return false;
+        }
+        var error = validate(table);
+        if (error != null) {
+            log.error("Rejected route table version {}: {}", table.getVersion(), error);
+            return false;
+        }
+
+        Map<String, RouteSpec> specs = new LinkedHashMap<>();
+        Map<String, Route> routes = new LinkedHashMap<>();
+        Set<String> changed = new HashSet<>();
+        for (RouteSpec spec : table.getRoutes()) {
+            specs.put(spec.getId(), spec);
+            var previous = current.specs().get(spec.getId());
+            if (spec.equals(previous)) {
+                routes.put(spec.getId(), current.routes().get(spec.getId()));
+            } else {
+                try {
+                    routes.put(spec.getId(), compiler.compile(spec));
+                } catch (RuntimeException e) {
+                    log.error("Rejected route table version {}: route {} failed to compile",
+                            table.getVersion(), spec.getId(), e);
+                    return false;
+                }
+                changed.add(spec.getId());
+            }
+        }
+        Set<String> removed = new HashSet<>(current.specs().keySet());
+        removed.removeAll(specs.keySet());
+        changed.addAll(removed);
+
+        policies.apply(specs.values());
+        snapshot.set(new RouteSnapshot(table.getVersion(), Map.copyOf(specs), routes));
+        log.info("Applied route table version {} (previous {}): {} routes, changed {}, removed {}",
+                table.getVersion(), current.version(), routes.size(), changed.size() - removed.size(), removed);
+
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new RouteTableChangedEvent(this, table.getVersion(), changed));
+        }
+        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        return true;
+    }
+
+    private static String validate(RouteTable table) {
+        Set<String> ids = new HashSet<>();
+        for (RouteSpec spec : table.getRoutes()) {
+            if (spec.getId() == null || spec.getId().isBlank()) {
+                return "route id is required";
+            }
+            if (!ids.add(spec.getId())) {
+                return "duplicate route id " + spec.getId();
+            }
+            if (spec.getPaths().isEmpty() || spec.getPaths().stream().anyMatch(Objects::isNull)) {
+                return "route " + spec.getId() + " has no paths";
+            }
+            if (spec.getUri() == null) {
+                return "route " + spec.getId() + " has no uri";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,107 @@
+package com.petify.gateway.route;
+
+import com.alibaba.cloud.nacos.NacosConfigManager;
+import com.alibaba.nacos.api.config.listener.AbstractListener;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.petify.gateway.config.RouteTableProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Nacos路由表监听器
+ * 启动时读取路由表Data ID并注册监听，配置变更后解析为{@link RouteTable}交给{@link DynamicRouteLocator}应用。
+ * 路由表格式：
+ * <pre>
+ * route-table:
+ *   version: 2
+ *   routes:
+ *     - id: pet-service
+ *       paths: [/api/pet/**]
+ *       uri: lb://petify-pet-service
+ *       retry-policy:
+ *         max-retries: 1
+ * </pre>
+ */
+@Slf4j
+@Component
+public class NacosRouteTableListener {
+
+    private static final String ROOT = "route-table";
+
+    private final RouteTableProperties properties;
+    private final NacosConfigManager nacosConfigManager;
+    private final DynamicRouteLocator routeLocator;
+    private final AbstractListener listener = new AbstractListener() {
+        @Override
+        public void receiveConfigInfo(String content) {
+            load(content);
+        }
+    };
+
+    public NacosRouteTableListener(RouteTableProperties properties, NacosConfigManager nacosConfigManager,
+                                   DynamicRouteLocator routeLocator) {
+        this.properties = properties;
+        this.nacosConfigManager = nacosConfigManager;
+        this.routeLocator = routeLocator;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        var configService = nacosConfigManager.getConfigService();
+        try {
+            var content = configService.getConfig(properties.getDataId(), properties.getGroup(),
+                    properties.getTimeout().toMillis());
+            if (content != null) {
+                load(content);
+            } else {
+                log.info("Route table {} not found in Nacos, using built-in routes", properties.getDataId());
+            }
+            configService.addListener(properties.getDataId(), properties.getGroup(), listener);
+        } catch (NacosException e) {
+            // 配置中心不可用时以内置路由表启动，不阻塞网关
+            log.error("Failed to load route table {} from Nacos, using built-in routes", properties.getDataId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (properties.isEnabled()) {
+            nacosConfigManager.getConfigService().removeListener(properties.getDataId(), properties.getGroup(), listener);
+        }
+    }
+
+    private void load(String content) {
+        if (content == null || content.isBlank()) {
+            log.warn("Route table {} is empty, keeping version {}", properties.getDataId(), routeLocator.version());
+            return;
+        }
+        try {
+            var sources = new YamlPropertySourceLoader().load(properties.getDataId(),
+                    new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)));
+            var table = new Binder(ConfigurationPropertySources.from(sources))
+                    .bind(ROOT, RouteTable.class)
+                    .orElse(null);
+            if (table == null) {
+                log.warn("Route table {} has no '{}' section, keeping version {}",
+                        properties.getDataId(), ROOT, routeLocator.version());
+                return;
+            }
+            routeLocator.apply(table);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to parse route table {}, keeping version {}",
+                    properties.getDataId(), routeLocator.version(), e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.petify.gateway.route;
+
+import com.petify.gateway.cache.ResponseCacheGatewayFilterFactory;
+import com.petify.gateway.coalescing.RequestCoalescingGatewayFilterFactory;
+import com.petify.gateway.concurrency.AdaptiveConcurrencyGatewayFilterFactory;
+import com.petify.gateway.idempotency.IdempotencyGatewayFilterFactory;
+import com.petify.gateway.metrics.FilterStageTimer;
+import com.petify.gateway.ratelimit.TieredRateLimiter;
+import com.petify.gateway.retry.BudgetedRetryGatewayFilterFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 路由编译器
+ * 按路由定义组装过滤器链。路由过滤器按order排序，order相同时保持添加顺序，实际执行顺序为：
+ * 限流（{@link #RATE_LIMIT_ORDER}）→ 响应缓存（-3）→ 幂等重放、请求合并（-2）
+ * → stripPrefix → 并发限制 → 熔断器 → 预算重试（均为0）。
+ * 限流先于所有可能短路的过滤器，重放、缓存命中与合并的跟随请求同样消耗客户端令牌；
+ * 这些请求不访问上游，因此有意绕过并发限制与熔断器
+ */
+@Component
+public class RouteCompiler {
+
+    /**
+     * 先于响应缓存、幂等重放与请求合并，晚于JWT认证（限流键使用认证得到的用户ID）
+     */
+    public static final int RATE_LIMIT_ORDER = ResponseCacheGatewayFilterFactory.ORDER - 1;
+
+    private final RouteLocatorBuilder builder;
+    private final TieredRateLimiter tieredRateLimiter;
+    private final KeyResolver userKeyResolver;
+    private final RequestRateLimiterGatewayFilterFactory rateLimiterFactory;
+    private final GatewayFilter budgetedRetryFilter;
+    private final GatewayFilter idempotencyFilter;
+    private final GatewayFilter coalescingFilter;
+    private final GatewayFilter responseCacheFilter;
+    private final GatewayFilter concurrencyLimitFilter;
+    private final GatewayFilter rateLimiterEnter;
+    private final GatewayFilter rateLimiterExit;
+    private final GatewayFilter circuitBreakerEnter;
+    private final GatewayFilter circuitBreakerExit;
+
+    public RouteCompiler(RouteLocatorBuilder builder, TieredRateLimiter tieredRateLimiter,
+                         @Qualifier("userKeyResolver") KeyResolver userKeyResolver,
+                         RequestRateLimiterGatewayFilterFactory rateLimiterFactory,
+                         BudgetedRetryGatewayFilterFactory budgetedRetryFactory,
+                         IdempotencyGatewayFilterFactory idempotencyFactory,
+                         RequestCoalescingGatewayFilterFactory coalescingFactory,
+                         ResponseCacheGatewayFilterFactory responseCacheFactory,
+                         AdaptiveConcurrencyGatewayFilterFactory concurrencyFactory,
+                         FilterStageTimer stageTimer) {
+        this.builder = builder;
+        this.tieredRateLimiter = tieredRateLimiter;
+        this.userKeyResolver = userKeyResolver;
+        this.rateLimiterFactory = rateLimiterFactory;
+        // 限流位于重试之前，重试不重复消耗客户端令牌；熔断器只统计重试后的最终结果
+        this.budgetedRetryFilter = budgetedRetryFactory.apply(new BudgetedRetryGatewayFilterFactory.Config());
+        // 幂等、合并与响应缓存自带顺序（先于响应写回过滤器），与在链中的位置无关
+        this.idempotencyFilter = idempotencyFactory.apply(new IdempotencyGatewayFilterFactory.Config());
+        // 仅对 gateway.coalescing.routes 中配置的路由及路径生效
+        this.coalescingFilter = coalescingFactory.apply(new RequestCoalescingGatewayFilterFactory.Config());
+        // 仅对 gateway.response-cache.routes 中配置的路由及路径生效，先于请求合并执行
+        this.responseCacheFilter = responseCacheFactory.apply(new ResponseCacheGatewayFilterFactory.Config());
+        // 路由级自适应并发限制，位于客户端限流之后、熔断器之外，超限直接503不排队
+        this.concurrencyLimitFilter = concurrencyFactory.apply(new AdaptiveConcurrencyGatewayFilterFactory.Config());
+        // 限流与熔断决策耗时统计（gateway.filter.stage），成对放置在被测过滤器前后
+        this.rateLimiterEnter = stageTimer.enter("rate-limiter");
+        this.rateLimiterExit = stageTimer.exit("rate-limiter");
+        this.circuitBreakerEnter = stageTimer.enter("circuit-breaker");
+        this.circuitBreakerExit = stageTimer.exit("circuit-breaker");
+    }
+
+    /**
+     * 编译单条路由；RouteLocatorBuilder产生的路由流是同步的，可直接取值
+     */
+    public Route compile(RouteSpec spec) {
+        return builder.routes()
+                .route(spec.getId(), r -> r.order(spec.getOrder())
+                        .path(spec.getPaths().toArray(String[]::new))
+                        .filters(f -> filters(f, spec))
+                        .uri(spec.getUri()))
+                .build()
+                .getRoutes()
+                .blockFirst();
+    }
+
+    private GatewayFilterSpec filters(GatewayFilterSpec f, RouteSpec spec) {
+        if (spec.isRateLimit()) {
+            // 计时标记与限流使用相同的order，排序后保持相邻
+            f.filter(rateLimiterEnter, RATE_LIMIT_ORDER)
+                    .filter(rateLimiterFactory.apply(spec.getId(), config -> config
+                            .setRateLimiter(tieredRateLimiter)
+                            .setKeyResolver(userKeyResolver)), RATE_LIMIT_ORDER)
+                    .filter(rateLimiterExit, RATE_LIMIT_ORDER);
+        }
+        if (spec.getStripPrefix() > 0) {
+            f.stripPrefix(spec.getStripPrefix());
+        }
+        if (spec.isIdempotency()) {
+            f.filter(idempotencyFilter);
+        }
+        if (spec.isResponseCache()) {
+            f.filter(responseCacheFilter);
+        }
+        if (spec.isCoalescing()) {
+            f.filter(coalescingFilter);
+        }
+        if (spec.isConcurrencyLimit()) {
+            f.filter(concurrencyLimitFilter);
+        }
+        var circuitBreaker = spec.getCircuitBreaker();
+        if (circuitBreaker != null && circuitBreaker.getName() != null) {
+            f.filter(circuitBreakerEnter)
+                    .circuitBreaker(config -> config
+                            .setName(circuitBreaker.getName())
+                            .setFallbackUri(circuitBreaker.getFallbackUri()))
+                    .filter(circuitBreakerExit);
+        }
+        if (spec.isRetry()) {
+            f.filter(budgetedRetryFilter);
+        }
+        return f;
+    }
+}
@@ -0,0 +1,55 @@
+package com.petify.gateway.route;
+
+import com.petify.gateway.config.ConcurrencyLimitProperties;
+import com.petify.gateway.config.RateLimitProperties;
+import com.petify.gateway.config.RetryProperties;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 路由表中的路由级策略合并
+ * 以首次应用时 gateway.* 配置中的路由策略为基线，叠加路由表中的策略后整体替换各属性类的routes映射；
+ * 请求线程读到的始终是完整的旧映射或完整的新映射
+ */
+class RoutePolicies {
+
+    private final RateLimitProperties rateLimitProperties;
+    private final RetryProperties retryProperties;
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final Map<String, RateLimitProperties.RoutePolicy> baseRateLimits;
+    private final Map<String, RetryProperties.Policy> baseRetries;
+    private final Map<String, ConcurrencyLimitProperties.Policy> baseConcurrencyLimits;
+
+    RoutePolicies(RateLimitProperties rateLimitProperties, RetryProperties retryProperties,
+                  ConcurrencyLimitProperties concurrencyLimitProperties) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.retryProperties = retryProperties;
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.baseRateLimits = Map.copyOf(rateLimitProperties.getRoutes());
+        this.baseRetries = Map.copyOf(retryProperties.getRoutes());
+        this.baseConcurrencyLimits = Map.copyOf(concurrencyLimitProperties.getRoutes());
+    }
+
+    void apply(Collection<RouteSpec> specs) {
+        rateLimitProperties.setRoutes(merge(baseRateLimits, specs, RouteSpec::getRateLimitPolicy));
+        retryProperties.setRoutes(merge(baseRetries, specs, RouteSpec::getRetryPolicy));
+        concurrencyLimitProperties.setRoutes(merge(baseConcurrencyLimits, specs, RouteSpec::getConcurrencyLimitPolicy));
+    }
+
+    private static <P> Map<String, P> merge(Map<String, P> base, Collection<RouteSpec> specs,
+                                            Function<RouteSpec, P> policy) {
+        Map<String, P> merged = new LinkedHashMap<>(base);
+        Consumer<RouteSpec> put = spec -> {
+            var value = policy.apply(spec);
+            if (value != null) {
+                merged.put(spec.getId(), value);
+            }
+        };
+        specs.forEach(put);
+        return merged;
+    }
+}
@@ -0,0 +1,17 @@
+package com.petify.gateway.route;
+
+import org.springframework.cloud.gateway.route.Route;
+
+import java.util.Map;
+
+/**
+ * 不可变的路由快照，路由表更新时整体替换
+ *
+ * @param version 路由表版本
+ * @param specs   路由ID到路由定义
+ * @param routes  路由ID到编译后的路由，保持路由表中的顺序
+ */
+record RouteSnapshot(long version, Map<String, RouteSpec> specs, Map<String, Route> routes) {
+
+    static final RouteSnapshot EMPTY = new RouteSnapshot(-1, Map.of(), Map.of());
+}
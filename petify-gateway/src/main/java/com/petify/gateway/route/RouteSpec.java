@@ -0,0 +1,102 @@
+package com.petify.gateway.route;
+
+import com.petify.gateway.config.ConcurrencyLimitProperties;
+import com.petify.gateway.config.RateLimitProperties;
+import com.petify.gateway.config.RetryProperties;
+import lombok.Data;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由定义
+ * 描述路由的匹配路径、目标地址、启用的网关过滤器及路由级策略；两个定义相等时路由在热更新中原样保留
+ */
+@Data
+public class RouteSpec {
+
+    private String id;
+
+    /**
+     * 匹配路径（Ant风格）
+     */
+    private List<String> paths = new ArrayList<>();
+
+    private URI uri;
+
+    private int order = 0;
+
+    /**
+     * 转发前移除的路径段数
+     */
+    private int stripPrefix = 2;
+
+    /**
+     * Idempotency-Key 响应重放
+     */
+    private boolean idempotency = false;
+
+    /**
+     * 公开目录接口响应缓存（缓存路径由 gateway.response-cache 配置）
+     */
+    private boolean responseCache = false;
+
+    /**
+     * 相同匿名GET请求合并（合并路径由 gateway.coalescing 配置）
+     */
+    private boolean coalescing = false;
+
+    /**
+     * 两级令牌桶限流
+     */
+    private boolean rateLimit = true;
+
+    /**
+     * 自适应并发限制
+     */
+    private boolean concurrencyLimit = true;
+
+    /**
+     * 幂等感知的预算重试
+     */
+    private boolean retry = true;
+
+    /**
+     * 服务级熔断器，为空时不启用
+     */
+    private CircuitBreaker circuitBreaker;
+
+    /**
+     * 路由级限流策略，为空时沿用 gateway.rate-limit 配置
+     */
+    private RateLimitProperties.RoutePolicy rateLimitPolicy;
+
+    /**
+     * 路由级重试策略，为空时沿用 gateway.retry 配置
+     */
+    private RetryProperties.Policy retryPolicy;
+
+    /**
+     * 路由级并发限制策略，为空时沿用 gateway.concurrency-limit 配置
+     */
+    private ConcurrencyLimitProperties.Policy concurrencyLimitPolicy;
+
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * 熔断器名称，名称不变时熔断状态在路由更新后保留
+         */
+        private String name;
+
+        private String fallbackUri;
+
+        public CircuitBreaker() {
+        }
+
+        public CircuitBreaker(String name, String fallbackUri) {
+            this.name = name;
+            this.fallbackUri = fallbackUri;
+        }
+    }
+}
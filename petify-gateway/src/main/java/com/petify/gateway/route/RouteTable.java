@@ -0,0 +1,17 @@
+package com.petify.gateway.route;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由表，version单调递增，只有更高版本的路由表会被应用
+ */
+@Data
+public class RouteTable {
+
+    private long version;
+
+    private List<RouteSpec> routes = new ArrayList<>();
+}
@@ -0,0 +1,29 @@
+package com.petify.gateway.route;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * 路由表已更新事件，changedRoutes为新增、修改及删除的路由ID；
+ * 按路由缓存了策略的组件据此丢弃或重建对应状态，未变化的路由状态保持不变
+ */
+public class RouteTableChangedEvent extends ApplicationEvent {
+
+    private final long version;
+    private final Set<String> changedRoutes;
+
+    public RouteTableChangedEvent(Object source, long version, Set<String> changedRoutes) {
+        super(source);
+        this.version = version;
+        this.changedRoutes = Set.copyOf(changedRoutes);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Set<String> getChangedRoutes() {
+        return changedRoutes;
+    }
+}
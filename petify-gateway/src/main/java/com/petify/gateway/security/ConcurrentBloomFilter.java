@@ -0,0 +1,69 @@
+package com.petify.gateway.security;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的字符串布隆过滤器
+ * 基于AtomicLongArray实现无锁写入，采用双重哈希（Kirsch-Mitzenmacher）派生k个位置
+ */
+public class ConcurrentBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions        预期插入数量
+     * @param falsePositiveProbability  期望误判率
+     */
+    public ConcurrentBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(expectedInsertions, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max((m + 63) >>> 6, 1);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashFunctions = Math.max((int) Math.round((double) bitSize / n * Math.log(2)), 1);
+    }
+
+    public void put(String value) {
+        long[] hash = MurmurHash.hash128(value);
+        long combined = hash[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            setBit(Math.floorMod(combined, bitSize));
+            combined += hash[1];
+        }
+    }
+
+    /**
+     * 可能包含返回true（存在误判），一定不包含返回false
+     */
+    public boolean mightContain(String value) {
+        long[] hash = MurmurHash.hash128(value);
+        long combined = hash[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            if (!getBit(Math.floorMod(combined, bitSize))) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean getBit(long index) {
+        return (bits.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.petify.gateway.security;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.petify.gateway.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 网关本地JWT校验器
+ * 签名密钥与JwtParser只构建一次并复用；校验通过的Claims按Token摘要缓存至其exp，
+ * 同一Token的后续请求无需重复验签与JSON解析
+ */
+@Slf4j
+@Component
+public class JwtTokenVerifier {
+
+    private static final String ACCESS_TOKEN_TYPE = "access";
+    private static final String SIGNATURE_ALGORITHM = "HS256";
+
+    private final JwtParser jwtParser;
+    private final Cache<String, TokenClaims> claimsCache;
+
+    public JwtTokenVerifier(JwtProperties jwtProperties) {
+        var signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .requireIssuer(jwtProperties.getIssuer())
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getCache().getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    /**
+     * 校验Access Token，返回其Claims；签名、发行者、类型或有效期任一不符时返回空
+     */
+    public Optional<TokenClaims> verify(String token) {
+        long now = System.currentTimeMillis();
+        // 以完整Token的摘要作为缓存Key，避免缓存持有原始Token，也杜绝伪造Token命中他人缓存
+        String cacheKey = DigestUtil.sha256Hex(token);
+
+        TokenClaims cached = claimsCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached.isExpired(now) ? Optional.empty() : Optional.of(cached);
+        }
+
+        TokenClaims claims = parse(token);
+        if (claims == null || claims.isExpired(now)) {
+            return Optional.empty();
+        }
+        claimsCache.put(cacheKey, claims);
+        return Optional.of(claims);
+    }
+
+    /**
+     * 主动失效缓存中的Token（如Token被撤销时）
+     */
+    public void invalidate(String token) {
+        claimsCache.invalidate(DigestUtil.sha256Hex(token));
+    }
+
+    private TokenClaims parse(String token) {
+        try {
+            var jws = jwtParser.parseSignedClaims(token);
+            if (!SIGNATURE_ALGORITHM.equals(jws.getHeader().getAlgorithm())) {
+                log.debug("Rejected JWT signed with unexpected algorithm: {}", jws.getHeader().getAlgorithm());
+                return null;
+            }
+
+            Claims body = jws.getPayload();
+            Date expiration = body.getExpiration();
+            if (expiration == null || !ACCESS_TOKEN_TYPE.equals(body.get("type", String.class))) {
+                return null;
+            }
+
+            return new TokenClaims(
+                Long.valueOf(body.getSubject()),
+                body.get("username", String.class),
+                joinRoles(body.get("roles", List.class)),
+                body.getId(),
+                expiration.getTime()
+            );
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT verification failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String joinRoles(List<?> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return "";
+        }
+        return roles.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * 缓存条目存活至Token自身的exp
+     */
+    private static class TokenExpiry implements Expiry<String, TokenClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenClaims value, long currentTime) {
+            long remainingMillis = value.expiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.petify.gateway.security;
+
+import com.petify.gateway.config.JwtProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * 已撤销Token登记表
+ * 在内存布隆过滤器中维护用户服务黑名单（blacklist:&lt;jti&gt;）的JTI集合：
+ * 过滤器未命中直接放行，不产生任何I/O；仅在命中时回查Redis以排除误判。
+ * 通过Redis Pub/Sub增量同步，并定期SCAN全量重建以剔除已过期条目、补齐订阅断开期间丢失的消息
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedTokenRegistry {
+
+    private static final String BLACKLIST_KEY_PREFIX = "blacklist:";
+
+    private final JwtProperties jwtProperties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    /**
+     * 首次全量加载完成前为null，此时所有校验均回查Redis
+     */
+    private volatile ConcurrentBloomFilter current;
+
+    /**
+     * 全量重建期间的新过滤器，增量消息需同时写入
+     */
+    private volatile ConcurrentBloomFilter rebuilding;
+
+    @PostConstruct
+    public void start() {
+        var revocation = jwtProperties.getRevocation();
+        if (!revocation.isEnabled()) {
+            return;
+        }
+
+        subscriptions.add(redisTemplate.listenToChannel(revocation.getChannel())
+                .doOnNext(message -> markRevoked(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe());
+
+        subscriptions.add(Flux.interval(Duration.ZERO, revocation.getResyncInterval())
+                .concatMap(tick -> rebuild())
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * 判断JTI是否已被撤销
+     */
+    public Mono<Boolean> isRevoked(String jti) {
+        if (jti == null || !jwtProperties.getRevocation().isEnabled()) {
+            return Mono.just(false);
+        }
+        var filter = current;
+        if (filter != null && !filter.mightContain(jti)) {
+            return Mono.just(false);
+        }
+        return redisTemplate.hasKey(BLACKLIST_KEY_PREFIX + jti)
+                .onErrorResume(e -> {
+                    // 无法排除误判时按已撤销处理
+                    log.warn("Failed to confirm token revocation in Redis: {}", e.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    private void markRevoked(String jti) {
+        var filter = current;
+        if (filter != null) {
+            filter.put(jti);
+        }
+        var next = rebuilding;
+        if (next != null) {
+            next.put(jti);
+        }
+    }
+
+    private Mono<Void> rebuild() {
+        var next = newFilter();
+        rebuilding = next;
+        var options = ScanOptions.scanOptions().match(BLACKLIST_KEY_PREFIX + "*").count(1000).build();
+        return redisTemplate.scan(options)
+                .doOnNext(key -> next.put(key.substring(BLACKLIST_KEY_PREFIX.length())))
+                .count()
+                .doOnNext(count -> {
+                    current = next;
+                    log.debug("Revoked token filter rebuilt with {} entries", count);
+                })
+                .doOnError(e -> log.warn("Failed to rebuild revoked token filter: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> rebuilding = null)
+                .then();
+    }
+
+    private ConcurrentBloomFilter newFilter() {
+        var revocation = jwtProperties.getRevocation();
+        return new ConcurrentBloomFilter(revocation.getExpectedInsertions(), revocation.getFalsePositiveProbability());
+    }
+}
@@ -0,0 +1,26 @@
+package com.petify.gateway.security;
+
+/**
+ * 已验证的Access Token载荷 - 不可变，可在请求间安全共享
+ *
+ * @param userId    用户ID（sub）
+ * @param username  用户名
+ * @param roles     逗号分隔的角色列表，直接作为X-User-Roles头的值
+ * @param jti       Token唯一标识
+ * @param expiresAt 过期时间（毫秒时间戳）
+ */
+public record TokenClaims(
+    Long userId,
+    String username,
+    String roles,
+    String jti,
+    long expiresAt
+) {
+
+    /**
+     * 判断Token在给定时间点是否已过期
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAt;
+    }
+}
@@ -0,0 +1,134 @@
+package com.petify.gateway.shedding;
+
+import com.petify.gateway.config.LoadSheddingProperties;
+import com.petify.gateway.exception.ErrorResponses;
+import com.petify.gateway.filter.UpstreamTimingFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 优先级负载削减全局过滤器
+ * 在认证与路由过滤器之前按路径和方法对请求分类：压力等级达到该类别的削减等级、
+ * 或该类别在途请求数达到上限时，直接返回预先编码的503响应，不做任何其他处理
+ */
+@Component
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 紧随访问日志与路由指标之后、JWT认证之前执行
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 2;
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final LoadSheddingProperties properties;
+    private final PressureMonitor pressureMonitor;
+    private final Map<Priority, AtomicInteger> inflight = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> pressureRejections = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> limitRejections = new EnumMap<>(Priority.class);
+
+    public LoadSheddingFilter(LoadSheddingProperties properties, PressureMonitor pressureMonitor,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pressureMonitor = pressureMonitor;
+        for (Priority priority : Priority.values()) {
+            var counter = new AtomicInteger();
+            inflight.put(priority, counter);
+            Gauge.builder("gateway.shedding.inflight", counter, AtomicInteger::get)
+                    .description("In-flight requests per priority class")
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry);
+            pressureRejections.put(priority, rejectionCounter(meterRegistry, priority, "pressure"));
+            limitRejections.put(priority, rejectionCounter(meterRegistry, priority, "limit"));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        var priority = classify(exchange.getRequest());
+        if (priority.shedAt(pressureMonitor.level())) {
+            pressureRejections.get(priority).increment();
+            return shed(exchange);
+        }
+        var counter = inflight.get(priority);
+        if (counter.incrementAndGet() > policy(priority).getMaxConcurrent()) {
+            counter.decrementAndGet();
+            limitRejections.get(priority).increment();
+            return shed(exchange);
+        }
+        return chain.filter(exchange).doFinally(signal -> {
+            counter.decrementAndGet();
+            // 只统计上游耗时：缓存命中、网关本地拒绝不计入，流式响应体的传输时间也不计入
+            long upstreamNanos = UpstreamTimingFilter.upstreamNanos(exchange);
+            if (upstreamNanos >= 0) {
+                pressureMonitor.recordLatency(upstreamNanos);
+            }
+        });
+    }
+
+    private Priority classify(ServerHttpRequest request) {
+        var path = request.getPath().value();
+        if (matches(properties.getCritical(), path)) {
+            return Priority.CRITICAL;
+        }
+        var method = request.getMethod();
+        if ((method == HttpMethod.GET || method == HttpMethod.HEAD) && matches(properties.getSheddable(), path)) {
+            return Priority.SHEDDABLE;
+        }
+        return Priority.NORMAL;
+    }
+
+    private static boolean matches(LoadSheddingProperties.ClassPolicy policy, String path) {
+        for (String pattern : policy.getPaths()) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private LoadSheddingProperties.ClassPolicy policy(Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> properties.getCritical();
+            case NORMAL -> properties.getNormal();
+            case SHEDDABLE -> properties.getSheddable();
+        };
+    }
+
+    private static Mono<Void> shed(ServerWebExchange exchange) {
+        var response = exchange.getResponse();
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return ErrorResponses.OVERLOADED.write(response);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, Priority priority, String reason) {
+        return Counter.builder("gateway.shedding.rejected")
+                .description("Requests shed by priority class")
+                .tag("priority", priority.tag())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
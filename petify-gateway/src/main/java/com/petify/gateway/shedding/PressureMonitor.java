@@ -0,0 +1,153 @@
+package com.petify.gateway.shedding;
+
+import com.petify.gateway.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 网关压力监测
+ * 按固定间隔采样进程CPU使用率与区间内上游耗时（转发至收到响应头）的分位数，计算压力等级：
+ * 0 正常、1 升高（削减sheddable）、2 严重（同时削减normal）。请求路径上只读取一个volatile字段。
+ * 压力升高立即生效，回落需连续 recovery-samples 个采样周期低于当前等级，且每次只降一级
+ */
+@Slf4j
+@Component
+public class PressureMonitor {
+
+    public static final int NORMAL = 0;
+    public static final int ELEVATED = 1;
+    public static final int CRITICAL = 2;
+
+    /**
+     * 耗时直方图：按微秒取二进制数量级，每个数量级再分4个子桶，相对误差不超过25%
+     */
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+    private final LoadSheddingProperties properties;
+    private final com.sun.management.OperatingSystemMXBean osBean;
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private volatile int level = NORMAL;
+    private volatile double cpuLoad;
+    private volatile double latencyNanos;
+    private int calmSamples;
+    private Disposable sampleTask;
+
+    public PressureMonitor(LoadSheddingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.osBean = ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+                ? os : null;
+        Gauge.builder("gateway.shedding.pressure", this, PressureMonitor::level)
+                .description("Gateway pressure level (0 normal, 1 elevated, 2 critical)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        sampleTask = Flux.interval(properties.getSampleInterval())
+                .onBackpressureDrop()
+                .subscribe(tick -> sample());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sampleTask != null) {
+            sampleTask.dispose();
+        }
+    }
+
+    /**
+     * 记录一次上游调用的耗时（不含响应体传输，流式响应不会拉高压力估计）
+     */
+    void recordLatency(long nanos) {
+        histogram.incrementAndGet(bucket(nanos / 1000));
+    }
+
+    public int level() {
+        return level;
+    }
+
+    private void sample() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.getAndSet(i, 0);
+            count += counts[i];
+        }
+        // 区间内无上游调用完成时衰减上次的估计，避免严重压力下只剩critical请求时等级无法回落
+        latencyNanos = count > 0 ? percentile(counts, count, properties.getLatencyPercentile()) : latencyNanos / 2;
+        cpuLoad = osBean != null ? Math.max(osBean.getProcessCpuLoad(), 0) : 0;
+
+        int target = NORMAL;
+        if (cpuLoad >= properties.getCpuCritical()
+                || latencyNanos >= properties.getLatencyCritical().toNanos()) {
+            target = CRITICAL;
+        } else if (cpuLoad >= properties.getCpuElevated()
+                || latencyNanos >= properties.getLatencyElevated().toNanos()) {
+            target = ELEVATED;
+        }
+
+        int next = level;
+        if (target > level) {
+            next = target;
+            calmSamples = 0;
+        } else if (target < level) {
+            if (++calmSamples >= properties.getRecoverySamples()) {
+                next = level - 1;
+                calmSamples = 0;
+            }
+        } else {
+            calmSamples = 0;
+        }
+        if (next != level) {
+            log.warn("Gateway pressure level changed {} -> {} (cpu={}, upstreamLatencyMs={})",
+                    level, next, String.format("%.2f", cpuLoad), (long) (latencyNanos / 1_000_000));
+            level = next;
+        }
+    }
+
+    private static int bucket(long micros) {
+        if (micros < (1L << SUB_BUCKET_BITS)) {
+            return (int) Math.max(micros, 0);
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (magnitude - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return Math.min(((magnitude - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub, BUCKETS - 1);
+    }
+
+    /**
+     * 桶的上界（纳秒）
+     */
+    private static double upperBoundNanos(int bucket) {
+        if (bucket < (1 << SUB_BUCKET_BITS)) {
+            return (bucket + 1) * 1000.0;
+        }
+        int magnitude = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        int sub = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+        return ((double) ((1L << SUB_BUCKET_BITS) + sub + 1) * (1L << (magnitude - SUB_BUCKET_BITS))) * 1000.0;
+    }
+
+    private static double percentile(long[] counts, long total, double percentile) {
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundNanos(i);
+            }
+        }
+        return upperBoundNanos(counts.length - 1);
+    }
+}
@@ -0,0 +1,30 @@
+package com.petify.gateway.shedding;
+
+import java.util.Locale;
+
+/**
+ * 请求优先级，按压力等级由低到高依次削减
+ */
+public enum Priority {
+
+    CRITICAL(Integer.MAX_VALUE),
+    NORMAL(PressureMonitor.CRITICAL),
+    SHEDDABLE(PressureMonitor.ELEVATED);
+
+    /**
+     * 达到该压力等级时削减此类请求
+     */
+    private final int shedLevel;
+
+    Priority(int shedLevel) {
+        this.shedLevel = shedLevel;
+    }
+
+    boolean shedAt(int pressureLevel) {
+        return pressureLevel >= shedLevel;
+    }
+
+    String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
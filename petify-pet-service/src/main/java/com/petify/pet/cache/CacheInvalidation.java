@@ -0,0 +1,22 @@
+package com.petify.pet.cache;
+
+/**
+ * 跨实例L1失效消息，格式：{来源实例}|{缓存名}|{key}，key为null表示清空整个缓存
+ */
+record CacheInvalidation(String origin, String cacheName, String key) {
+
+    private static final String SEPARATOR = "|";
+    private static final String CLEAR = "";
+
+    String encode() {
+        return origin + SEPARATOR + cacheName + SEPARATOR + (key != null ? key : CLEAR);
+    }
+
+    static CacheInvalidation decode(String message) {
+        var parts = message.split("\\|", 3);
+        if (parts.length < 3) {
+            return null;
+        }
+        return new CacheInvalidation(parts[0], parts[1], parts[2].isEmpty() ? null : parts[2]);
+    }
+}
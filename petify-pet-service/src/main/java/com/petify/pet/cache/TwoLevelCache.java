@@ -0,0 +1,104 @@
+package com.petify.pet.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 两级缓存：先查进程内Caffeine（L1），未命中再查Redis（L2）并回填L1。
+ * 写入与失效同时作用于两级，并通知其他实例丢弃各自的L1副本。
+ * L1以key的字符串形式为键，与Redis键及失效消息保持一致
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<String, Object> local;
+    private final org.springframework.cache.Cache remote;
+    private final TwoLevelCacheManager manager;
+
+    TwoLevelCache(String name, Cache<String, Object> local, org.springframework.cache.Cache remote,
+                  TwoLevelCacheManager manager) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        var localKey = localKey(key);
+        var value = local.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        var wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        local.put(localKey, wrapper.get());
+        return wrapper.get();
+    }
+
+    /**
+     * 同一实例内同一key只加载一次；L2未命中时由valueLoader加载并写入L2
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) local.get(localKey(key), k -> remote.get(key, valueLoader));
+    }
+
+    /**
+     * 不缓存null：查询不到数据时既不写入也不广播失效，避免一次未命中清掉其他实例的L1
+     */
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        remote.put(key, value);
+        local.put(localKey(key), value);
+        manager.publish(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        manager.publish(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        manager.publish(name, null);
+    }
+
+    /**
+     * 处理其他实例的失效通知，仅作用于L1
+     */
+    void evictLocal(String localKey) {
+        if (localKey == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
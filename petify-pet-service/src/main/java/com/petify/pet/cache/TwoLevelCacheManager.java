@@ -0,0 +1,89 @@
+package com.petify.pet.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petify.pet.config.TwoLevelCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 两级缓存管理器
+ * 每个缓存名称对应一个有界的Caffeine L1与RedisCacheManager提供的L2，
+ * 通过Redis发布/订阅在实例间传播L1失效
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final TwoLevelCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                                TwoLevelCacheProperties properties, MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Set.copyOf(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        var spec = properties.resolve(name);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(spec.getLocalMaximumSize())
+                .expireAfterWrite(spec.getLocalTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, "tier", "l1");
+        return new TwoLevelCache(name, local, redisCacheManager.getCache(name), this);
+    }
+
+    /**
+     * 通知其他实例丢弃L1中的key（为null时清空整个缓存）；通知失败只影响其他实例的L1时效，由L1过期时间兜底
+     */
+    void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(),
+                    new CacheInvalidation(instanceId, cacheName, key).encode());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish cache invalidation for {}:{}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var invalidation = CacheInvalidation.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (invalidation == null || instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        var cache = caches.get(invalidation.cacheName());
+        if (cache != null) {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.petify.pet.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 两级缓存配置：进程内Caffeine（L1）+ Redis（L2）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pet.cache")
+public class TwoLevelCacheProperties {
+
+    /**
+     * 跨实例L1失效通知的Redis频道
+     */
+    private String invalidationChannel = "petify:pet:cache:invalidation";
+
+    /**
+     * 未单独配置的缓存使用的默认设置
+     */
+    private Spec defaults = new Spec();
+
+    /**
+     * 按缓存名称配置，如 categories、breeds
+     */
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    public Spec resolve(String cacheName) {
+        var spec = caches.get(cacheName);
+        return spec != null ? spec : defaults;
+    }
+
+    @Data
+    public static class Spec {
+        /**
+         * L1最大条目数
+         */
+        private long localMaximumSize = 1000;
+
+        /**
+         * L1过期时间，失效通知丢失时L1数据最多陈旧这么久，应不大于L2过期时间
+         */
+        private Duration localTtl = Duration.ofMinutes(5);
+
+        /**
+         * L2（Redis）过期时间
+         */
+        private Duration redisTtl = Duration.ofMinutes(30);
+    }
+}
@@ -66,7 +66,7 @@ public class PetBreedServiceImpl implements PetBreedService {
     }
     
     @Override
-    @Cacheable(value = "breeds", key = "#breedId")
+    @Cacheable(value = "breeds", key = "#breedId", unless = "#result == null")
     public PetBreedResponse getBreedById(Long breedId) {
         log.info("Fetching breed with ID: {}", breedId);
         
@@ -41,7 +41,7 @@ public class PetCategoryServiceImpl implements PetCategoryService {
     }
     
     @Override
-    @Cacheable(value = "categories", key = "#categoryId")
+    @Cacheable(value = "categories", key = "#categoryId", unless = "#result == null")
     public PetCategoryResponse getCategoryById(Long categoryId) {
         log.info("Fetching category with ID: {}", categoryId);
         
@@ -0,0 +1,85 @@
+package com.petify.user.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比每次调用重新构造密钥与解析器、复用缓存的SecretKey/JwtParser，以及JwtUtil.parse的完整路径
+ * 运行：mvn -pl petify-user-service -Pjmh test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParserBenchmark {
+
+    private static final String SECRET = "petify-jwt-secret-key-that-is-at-least-32-chars-long-for-security";
+
+    private JwtUtil jwtUtil;
+    private SecretKey cachedKey;
+    private JwtParser cachedParser;
+    private String token;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        jwtUtil = new JwtUtil();
+        setField("jwtSecret", SECRET);
+        setField("accessTokenExpiration", 4_500_000L);
+        setField("refreshTokenExpiration", 7_776_000_000L);
+        setField("issuer", "petify-platform");
+        jwtUtil.init();
+
+        cachedKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        cachedParser = Jwts.parser().verifyWith(cachedKey).build();
+        token = jwtUtil.generateAccessToken(10001L, "benchmark-user", List.of("USER"));
+    }
+
+    /**
+     * 优化前的做法：每次解析都重新派生密钥并构建解析器
+     */
+    @Benchmark
+    public Claims perCallKeyAndParser() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims cachedKeyPerCallParser() {
+        return Jwts.parser().verifyWith(cachedKey).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims cachedParser() {
+        return cachedParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public ParsedToken jwtUtilParse() {
+        return jwtUtil.parse(token);
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtUtil.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtil, value);
+    }
+}
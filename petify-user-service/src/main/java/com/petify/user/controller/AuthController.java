@@ -11,6 +11,9 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -26,13 +29,12 @@ public class AuthController {
     }
     
     @PostMapping("/login")
-    public Result<LoginResponseDTO> login(@Validated @RequestBody UserLoginDTO loginDTO,
-                                         HttpServletRequest request) {
+    public CompletableFuture<Result<LoginResponseDTO>> login(@Validated @RequestBody UserLoginDTO loginDTO,
+                                                            HttpServletRequest request) {
         String deviceId = getDeviceId(request);
         String ipAddress = getIpAddress(request);
         
-        LoginResponseDTO response = authService.login(loginDTO, deviceId, ipAddress);
-        return Result.success(response);
+        return authService.login(loginDTO, deviceId, ipAddress).thenApply(Result::success);
     }
     
     @PostMapping("/refresh")
@@ -59,6 +61,17 @@ public class AuthController {
         return Result.success();
     }
     
+    @PostMapping("/logout-all")
+    public Result<Void> logoutAllDevices(@RequestHeader("X-User-Id") Long userId) {
+        authService.logoutAllDevices(userId);
+        return Result.success();
+    }
+    
+    @GetMapping("/devices")
+    public Result<List<DeviceSessionDTO>> listDevices(@RequestHeader("X-User-Id") Long userId) {
+        return Result.success(authService.listDevices(userId));
+    }
+    
     private String getDeviceId(HttpServletRequest request) {
         String deviceId = request.getHeader("X-Device-ID");
         return deviceId != null ? deviceId : IdUtil.fastSimpleUUID();
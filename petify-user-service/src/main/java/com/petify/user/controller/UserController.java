@@ -1,12 +1,18 @@
 package com.petify.user.controller;
 
 import com.petify.common.result.Result;
+import com.petify.user.dto.CursorPageDTO;
 import com.petify.user.dto.LoginResponseDTO;
+import com.petify.user.dto.UserSummaryDTO;
 import com.petify.user.entity.User;
 import com.petify.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/user")
@@ -30,12 +36,24 @@ public class UserController {
     }
     
     @GetMapping("/admin/users")
-    public Result<Object> getAllUsers(@RequestHeader("X-User-Roles") String roles) {
+    public Result<CursorPageDTO<UserSummaryDTO>> listUsers(@RequestHeader("X-User-Roles") String roles,
+                                                          @RequestParam(required = false) Long afterId,
+                                                          @RequestParam(defaultValue = "50") int size) {
         if (!roles.contains("ADMIN")) {
             return Result.error(403, "权限不足");
         }
         
-        Object users = userService.getAllUsers();
-        return Result.success(users);
+        return Result.success(userService.listUsers(afterId, size));
+    }
+    
+    @GetMapping("/admin/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestHeader("X-User-Roles") String roles) {
+        if (!roles.contains("ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(userService::exportUsers);
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.petify.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    
+    private List<T> items;
+    
+    /**
+     * 下一页游标（本页最后一条记录的ID），没有更多数据时为null
+     */
+    private Long nextCursor;
+    
+    private boolean hasMore;
+}
@@ -0,0 +1,19 @@
+package com.petify.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceSessionDTO {
+    
+    private String deviceId;
+    
+    private String ipAddress;
+    
+    private Long loginTime;
+    
+    private Long expiresAt;
+}
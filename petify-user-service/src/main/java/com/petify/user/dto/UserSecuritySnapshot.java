@@ -0,0 +1,25 @@
+package com.petify.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * 刷新令牌所需的用户安全信息快照 - 不可变，可在本地缓存中安全共享
+ */
+public record UserSecuritySnapshot(
+        Long id,
+        String username,
+        Short status,
+        List<String> roles
+) {
+    
+    public UserSecuritySnapshot {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+    
+    @JsonIgnore
+    public boolean isActive() {
+        return status != null && status == 1;
+    }
+}
@@ -0,0 +1,27 @@
+package com.petify.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+    
+    private Long id;
+    
+    private String username;
+    
+    private String email;
+    
+    private String phone;
+    
+    private String realName;
+    
+    private Short status;
+    
+    private LocalDateTime createdAt;
+}
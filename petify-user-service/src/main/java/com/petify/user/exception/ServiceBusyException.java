@@ -0,0 +1,10 @@
+package com.petify.user.exception;
+
+import com.petify.common.exception.BusinessException;
+
+public class ServiceBusyException extends BusinessException {
+    
+    public ServiceBusyException(String message) {
+        super(503, message);
+    }
+}
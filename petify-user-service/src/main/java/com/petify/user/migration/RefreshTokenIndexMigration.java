@@ -0,0 +1,76 @@
+package com.petify.user.migration;
+
+import com.petify.user.service.impl.AuthServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 刷新令牌存储迁移
+ * 将旧格式 refresh_token:&lt;userId&gt;:&lt;deviceId&gt; 字符串键迁移到按用户聚合的
+ * refresh_tokens:&lt;userId&gt; 哈希中；使用SCAN增量遍历，不阻塞Redis，重复执行是幂等的
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenIndexMigration implements ApplicationRunner {
+    
+    private static final String LEGACY_KEY_PREFIX = "refresh_token:";
+    
+    private final RedisTemplate<String, Object> redisTemplate;
+    
+    @Value("${petify.auth.refresh-token-migration.enabled:true}")
+    private boolean enabled;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        
+        ScanOptions options = ScanOptions.scanOptions().match(LEGACY_KEY_PREFIX + "*").count(1000).build();
+        int migrated = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                if (migrate(cursor.next())) {
+                    migrated++;
+                }
+            }
+        } catch (Exception e) {
+            log.error("刷新令牌迁移异常", e);
+        }
+        
+        if (migrated > 0) {
+            log.info("刷新令牌迁移完成, 迁移数量: {}", migrated);
+        }
+    }
+    
+    private boolean migrate(String legacyKey) {
+        String[] parts = legacyKey.substring(LEGACY_KEY_PREFIX.length()).split(":", 2);
+        if (parts.length != 2) {
+            return false;
+        }
+        
+        Object token = redisTemplate.opsForValue().get(legacyKey);
+        Long ttl = redisTemplate.getExpire(legacyKey, TimeUnit.SECONDS);
+        if (token != null && ttl != null && ttl != -2) {
+            String indexKey = AuthServiceImpl.REFRESH_TOKEN_INDEX_PREFIX + parts[0];
+            redisTemplate.opsForHash().putIfAbsent(indexKey, parts[1], token);
+            Long indexTtl = redisTemplate.getExpire(indexKey, TimeUnit.SECONDS);
+            long targetTtl = ttl > 0 ? ttl : AuthServiceImpl.REFRESH_TOKEN_TTL_SECONDS;
+            if (indexTtl == null || indexTtl < targetTtl) {
+                redisTemplate.expire(indexKey, targetTtl, TimeUnit.SECONDS);
+            }
+        }
+        redisTemplate.delete(legacyKey);
+        return token != null;
+    }
+}
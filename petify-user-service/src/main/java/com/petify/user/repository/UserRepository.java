@@ -1,9 +1,17 @@
 package com.petify.user.repository;
 
+import com.petify.user.dto.UserSummaryDTO;
 import com.petify.user.entity.User;
+import com.petify.user.repository.projection.UserWithRoles;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +20,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    
+    /**
+     * 按用户名或邮箱查找用户并聚合角色，一次数据库往返；用户名匹配优先于邮箱匹配
+     */
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.password AS password, u.email AS email, " +
+            "u.real_name AS realName, u.avatar_url AS avatarUrl, u.status AS status, " +
+            "string_agg(ur.role_name, ',') AS roles " +
+            "FROM users u LEFT JOIN user_roles ur ON ur.user_id = u.id " +
+            "WHERE u.username = :identifier OR u.email = :identifier " +
+            "GROUP BY u.id " +
+            "ORDER BY (u.username = :identifier) DESC " +
+            "LIMIT 1", nativeQuery = true)
+    Optional<UserWithRoles> findWithRolesByIdentifier(@Param("identifier") String identifier);
+    
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.password AS password, u.email AS email, " +
+            "u.real_name AS realName, u.avatar_url AS avatarUrl, u.status AS status, " +
+            "string_agg(ur.role_name, ',') AS roles " +
+            "FROM users u LEFT JOIN user_roles ur ON ur.user_id = u.id " +
+            "WHERE u.id = :userId " +
+            "GROUP BY u.id", nativeQuery = true)
+    Optional<UserWithRoles> findWithRolesById(@Param("userId") Long userId);
+    
+    /**
+     * 基于ID的键集分页，只查询列表所需字段
+     */
+    @Query("SELECT new com.petify.user.dto.UserSummaryDTO(u.id, u.username, u.email, u.phone, u.realName, u.status, u.createdAt) " +
+            "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :userId AND u.password = :oldPassword")
+    int updatePassword(@Param("userId") Long userId,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
 }
\ No newline at end of file
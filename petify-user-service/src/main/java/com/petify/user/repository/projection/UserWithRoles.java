@@ -0,0 +1,34 @@
+package com.petify.user.repository.projection;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 用户及其角色的单次查询投影，角色名由数据库聚合为逗号分隔字符串
+ */
+public interface UserWithRoles {
+    
+    Long getId();
+    
+    String getUsername();
+    
+    String getPassword();
+    
+    String getEmail();
+    
+    String getRealName();
+    
+    String getAvatarUrl();
+    
+    Short getStatus();
+    
+    String getRoles();
+    
+    default List<String> getRoleList() {
+        String roles = getRoles();
+        if (roles == null || roles.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(roles.split(","));
+    }
+}
@@ -2,13 +2,20 @@ package com.petify.user.service;
 
 import com.petify.user.dto.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
     
     void register(UserRegisterDTO registerDTO);
     
-    LoginResponseDTO login(UserLoginDTO loginDTO, String deviceId, String ipAddress);
+    CompletableFuture<LoginResponseDTO> login(UserLoginDTO loginDTO, String deviceId, String ipAddress);
     
     String refreshToken(String refreshToken, String deviceId, String ipAddress);
     
     void logout(String accessToken, String refreshToken);
+    
+    void logoutAllDevices(Long userId);
+    
+    List<DeviceSessionDTO> listDevices(Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.petify.user.service;
+
+public interface LoginAttemptService {
+    
+    /**
+     * 原子地检查并登记一次登录尝试（同时按登录标识和IP滑动窗口计数）
+     */
+    Attempt tryAcquire(String identifier, String ipAddress);
+    
+    /**
+     * 登录成功后清除该标识的失败计数，并撤回本次尝试在IP窗口中的计数
+     */
+    void release(String identifier, String ipAddress, Attempt attempt);
+    
+    /**
+     * 撤回本次尝试在两个窗口中的计数，不清除此前的失败记录；用于限流拒绝、基础设施异常等未校验密码的情况
+     */
+    void cancel(String identifier, String ipAddress, Attempt attempt);
+    
+    /**
+     * @param allowed           是否允许本次登录尝试
+     * @param retryAfterSeconds 被锁定时距离可重试的秒数
+     * @param attemptId         本次尝试在窗口中的唯一标识
+     */
+    record Attempt(boolean allowed, long retryAfterSeconds, String attemptId) {
+    }
+}
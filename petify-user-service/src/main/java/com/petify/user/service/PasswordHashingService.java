@@ -0,0 +1,26 @@
+package com.petify.user.service;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PasswordHashingService {
+    
+    /**
+     * 在专用哈希线程池中校验密码；线程池饱和时立即抛出ServiceBusyException
+     */
+    CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword);
+    
+    /**
+     * 在专用哈希线程池中计算密码哈希
+     */
+    CompletableFuture<String> encodeAsync(String rawPassword);
+    
+    /**
+     * 同步计算密码哈希（仍在专用线程池中执行，调用方等待结果）
+     */
+    String encode(String rawPassword);
+    
+    /**
+     * 已存储的哈希强度是否低于当前配置的目标强度
+     */
+    boolean needsRehash(String encodedPassword);
+}
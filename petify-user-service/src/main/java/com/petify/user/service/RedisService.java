@@ -1,14 +1,33 @@
 package com.petify.user.service;
 
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+
 public interface RedisService {
     
     void set(String key, Object value, int expireSeconds);
     
     <T> T get(String key, Class<T> type);
     
+    void setString(String key, String value, int expireSeconds);
+    
+    String getString(String key);
+    
     void delete(String key);
     
-    void deleteByPattern(String pattern);
+    void hashPut(String key, String field, Object value, int expireSeconds);
+    
+    <T> T hashGet(String key, String field, Class<T> type);
+    
+    Map<String, Object> hashGetAll(String key);
+    
+    void hashDelete(String key, String... fields);
     
     boolean hasKey(String key);
+    
+    void publish(String channel, String message);
+    
+    <T> T executeScript(RedisScript<T> script, List<String> keys, String... args);
 }
\ No newline at end of file
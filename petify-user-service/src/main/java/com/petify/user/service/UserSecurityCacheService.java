@@ -0,0 +1,18 @@
+package com.petify.user.service;
+
+import com.petify.user.dto.UserSecuritySnapshot;
+
+import java.util.Optional;
+
+public interface UserSecurityCacheService {
+    
+    /**
+     * 依次查询本地缓存、Redis、数据库获取用户安全快照
+     */
+    Optional<UserSecuritySnapshot> get(Long userId);
+    
+    /**
+     * 失效所有实例中的用户安全快照（用户状态、用户名或角色变更后调用）
+     */
+    void evict(Long userId);
+}
@@ -1,13 +1,23 @@
 package com.petify.user.service;
 
+import com.petify.user.dto.CursorPageDTO;
 import com.petify.user.dto.LoginResponseDTO;
+import com.petify.user.dto.UserSummaryDTO;
 import com.petify.user.entity.User;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface UserService {
     
     LoginResponseDTO.UserInfoDTO getUserInfo(Long userId);
     
     void updateUserProfile(Long userId, User updateRequest);
     
-    Object getAllUsers();
+    CursorPageDTO<UserSummaryDTO> listUsers(Long afterId, int size);
+    
+    /**
+     * 以NDJSON格式流式导出全部用户，逐行读取数据库游标并写出，内存占用与用户总数无关
+     */
+    void exportUsers(OutputStream outputStream) throws IOException;
 }
\ No newline at end of file
@@ -4,30 +4,106 @@ import com.petify.common.exception.BusinessException;
 import com.petify.user.dto.*;
 import com.petify.user.entity.User;
 import com.petify.user.entity.UserRole;
+import com.petify.user.exception.ServiceBusyException;
 import com.petify.user.repository.UserRepository;
 import com.petify.user.repository.UserRoleRepository;
+import com.petify.user.repository.projection.UserWithRoles;
 import com.petify.user.service.AuthService;
+import com.petify.user.service.LoginAttemptService;
+import com.petify.user.service.PasswordHashingService;
 import com.petify.user.service.RedisService;
+import com.petify.user.service.UserSecurityCacheService;
 import com.petify.user.util.JwtUtil;
+import com.petify.user.util.ParsedToken;
 import cn.hutool.core.util.StrUtil;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class AuthServiceImpl implements AuthService {
+public class AuthServiceImpl implements AuthService, DisposableBean {
+    
+    private static final String TOKEN_REVOKED_CHANNEL = "token:revoked";
+    
+    public static final String REFRESH_TOKEN_INDEX_PREFIX = "refresh_tokens:";
+    
+    public static final int REFRESH_TOKEN_TTL_SECONDS = 90 * 24 * 60 * 60;
+    
+    private static final String COMPLETION_METRIC_PREFIX = "petify.login.completion";
+    private static final String BUSY_MESSAGE = "登录请求繁忙，请稍后重试";
     
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
     private final RedisService redisService;
+    private final LoginAttemptService loginAttemptService;
+    private final UserSecurityCacheService userSecurityCacheService;
+    private final ThreadPoolExecutor completionPool;
+    private final Executor loginCompletionExecutor;
+    
+    /**
+     * 密码校验通过后的收尾工作（签发令牌、写Redis、更新数据库）使用独立的有界线程池，哈希线程只做BCrypt计算；
+     * 线程池私有持有，不注册为Executor Bean，以免替换Spring Boot默认的applicationTaskExecutor。
+     * 队列满时与哈希线程池一致直接拒绝（503）
+     */
+    public AuthServiceImpl(UserRepository userRepository,
+                           UserRoleRepository userRoleRepository,
+                           PasswordHashingService passwordHashingService,
+                           JwtUtil jwtUtil,
+                           RedisService redisService,
+                           LoginAttemptService loginAttemptService,
+                           UserSecurityCacheService userSecurityCacheService,
+                           MeterRegistry meterRegistry,
+                           @Value("${petify.auth.login.completion-threads:4}") int completionThreads,
+                           @Value("${petify.auth.login.queue-capacity:256}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.jwtUtil = jwtUtil;
+        this.redisService = redisService;
+        this.loginAttemptService = loginAttemptService;
+        this.userSecurityCacheService = userSecurityCacheService;
+        
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("login-completion-");
+        threadFactory.setDaemon(true);
+        this.completionPool = new ThreadPoolExecutor(completionThreads, completionThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(completionPool, COMPLETION_METRIC_PREFIX, Tags.empty()).bindTo(meterRegistry);
+        Counter rejectedCounter = Counter.builder(COMPLETION_METRIC_PREFIX + ".rejected").register(meterRegistry);
+        this.loginCompletionExecutor = task -> {
+            try {
+                completionPool.execute(task);
+            } catch (RejectedExecutionException e) {
+                rejectedCounter.increment();
+                throw new ServiceBusyException(BUSY_MESSAGE);
+            }
+        };
+    }
+    
+    @Override
+    public void destroy() {
+        completionPool.shutdown();
+    }
     
     @Override
     @Transactional
@@ -39,7 +115,7 @@ public class AuthServiceImpl implements AuthService {
         User user = new User();
         user.setUsername(registerDTO.getUsername());
         user.setEmail(registerDTO.getEmail());
-        user.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
+        user.setPassword(passwordHashingService.encode(registerDTO.getPassword()));
         user.setRealName(registerDTO.getRealName());
         user.setPhone(registerDTO.getPhone());
         user.setStatus((short) 1);
@@ -50,31 +126,78 @@ public class AuthServiceImpl implements AuthService {
         userRole.setUserId(user.getId());
         userRole.setRoleName("USER");
         userRoleRepository.save(userRole);
+        userSecurityCacheService.evict(user.getId());
         
         log.info("用户注册成功: {}", user.getUsername());
     }
     
     @Override
-    public LoginResponseDTO login(UserLoginDTO loginDTO, String deviceId, String ipAddress) {
+    public CompletableFuture<LoginResponseDTO> login(UserLoginDTO loginDTO, String deviceId, String ipAddress) {
         String identifier = loginDTO.getIdentifier();
         
-        if (isLoginLocked(identifier)) {
-            throw new BusinessException(423, "登录失败次数过多，请30分钟后重试");
+        LoginAttemptService.Attempt attempt = loginAttemptService.tryAcquire(identifier, ipAddress);
+        if (!attempt.allowed()) {
+            long minutes = Math.max(1, (attempt.retryAfterSeconds() + 59) / 60);
+            throw new BusinessException(423, "登录失败次数过多，请" + minutes + "分钟后重试");
         }
         
-        User user = findUserByIdentifier(identifier);
-        if (user == null || !passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
-            recordFailedLogin(identifier);
-            throw new BusinessException(401, "用户名或密码错误");
+        UserWithRoles user;
+        CompletableFuture<Boolean> passwordCheck;
+        try {
+            user = userRepository.findWithRolesByIdentifier(identifier).orElse(null);
+            if (user == null) {
+                throw new BusinessException(401, "用户名或密码错误");
+            }
+            // 密码校验在专用哈希线程池中执行，请求线程随即释放
+            passwordCheck = passwordHashingService.matches(loginDTO.getPassword(), user.getPassword());
+        } catch (RuntimeException e) {
+            settleAttempt(identifier, ipAddress, attempt, e);
+            throw e;
         }
         
+        // 校验通过后的收尾工作切换到独立线程池，哈希线程只做BCrypt计算
+        return passwordCheck
+                .thenApplyAsync(matched -> {
+                    if (!matched) {
+                        throw new BusinessException(401, "用户名或密码错误");
+                    }
+                    return completeLogin(user, loginDTO.getPassword(), deviceId, ipAddress);
+                }, loginCompletionExecutor)
+                .whenComplete((response, error) -> settleAttempt(identifier, ipAddress, attempt, error));
+    }
+    
+    /**
+     * 只有用户不存在或密码错误计入失败次数：登录成功时清除失败记录，
+     * 限流拒绝（503）、数据库或Redis异常等未完成密码校验的情况只撤回本次计数
+     */
+    private void settleAttempt(String identifier, String ipAddress, LoginAttemptService.Attempt attempt, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Integer code = cause instanceof BusinessException e ? e.getCode() : null;
+        if (Integer.valueOf(401).equals(code)) {
+            return;
+        }
+        // 计数清理失败不影响登录结果：成功的登录此时已签发并保存了令牌
+        try {
+            if (cause == null || Integer.valueOf(403).equals(code)) {
+                // 密码正确（包括账户已禁用的情况）
+                loginAttemptService.release(identifier, ipAddress, attempt);
+            } else {
+                loginAttemptService.cancel(identifier, ipAddress, attempt);
+            }
+        } catch (RuntimeException e) {
+            log.warn("清理登录尝试计数失败: {}", identifier, e);
+        }
+    }
+    
+    private LoginResponseDTO completeLogin(UserWithRoles user, String rawPassword,
+                                           String deviceId, String ipAddress) {
         if (user.getStatus() != 1) {
             throw new BusinessException(403, "账户已被禁用");
         }
         
-        clearFailedLogin(identifier);
+        rehashIfNeeded(user, rawPassword);
         
-        List<String> roles = userRoleRepository.findRoleNamesByUserId(user.getId());
+        List<String> roles = user.getRoleList();
         
         String accessToken = jwtUtil.generateAccessToken(user.getId(), user.getUsername(), roles);
         String refreshToken = jwtUtil.generateRefreshToken(user.getId(), deviceId, ipAddress);
@@ -93,22 +216,19 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public String refreshToken(String refreshToken, String deviceId, String ipAddress) {
         try {
-            if (!jwtUtil.isTokenValid(refreshToken)) {
-                throw new BusinessException(401, "刷新令牌无效");
-            }
+            ParsedToken token = jwtUtil.parse(refreshToken);
             
-            if (isTokenBlacklisted(jwtUtil.getJwtId(refreshToken))) {
+            if (isTokenBlacklisted(token.jti())) {
                 throw new BusinessException(401, "刷新令牌已失效");
             }
             
-            Long userId = jwtUtil.getUserIdFromToken(refreshToken);
-            User user = userRepository.findById(userId).orElse(null);
-            if (user == null || user.getStatus() != 1) {
+            Long userId = token.userId();
+            UserSecuritySnapshot user = userSecurityCacheService.get(userId).orElse(null);
+            if (user == null || !user.isActive()) {
                 throw new BusinessException(401, "用户状态异常");
             }
             
-            List<String> roles = userRoleRepository.findRoleNamesByUserId(userId);
-            return jwtUtil.generateAccessToken(userId, user.getUsername(), roles);
+            return jwtUtil.generateAccessToken(userId, user.username(), user.roles());
             
         } catch (Exception e) {
             throw new BusinessException(401, "刷新令牌失败");
@@ -119,16 +239,15 @@ public class AuthServiceImpl implements AuthService {
     public void logout(String accessToken, String refreshToken) {
         try {
             if (StrUtil.isNotBlank(accessToken)) {
-                String accessJti = jwtUtil.getJwtId(accessToken);
-                blacklistToken(accessJti, jwtUtil.getExpirationFromToken(accessToken).getTime());
+                ParsedToken access = jwtUtil.parse(accessToken);
+                blacklistToken(access.jti(), access.expiresAt());
             }
             
             if (StrUtil.isNotBlank(refreshToken)) {
-                String refreshJti = jwtUtil.getJwtId(refreshToken);
-                blacklistToken(refreshJti, jwtUtil.getExpirationFromToken(refreshToken).getTime());
+                ParsedToken refresh = jwtUtil.parse(refreshToken);
+                blacklistToken(refresh.jti(), refresh.expiresAt());
                 
-                Long userId = jwtUtil.getUserIdFromToken(refreshToken);
-                removeRefreshToken(userId, refreshToken);
+                removeRefreshToken(refresh, refreshToken);
             }
             
             log.info("用户登出成功");
@@ -137,41 +256,90 @@ public class AuthServiceImpl implements AuthService {
         }
     }
     
-    private boolean userExists(String username, String email) {
-        return userRepository.existsByUsername(username) || userRepository.existsByEmail(email);
+    @Override
+    public void logoutAllDevices(Long userId) {
+        String key = REFRESH_TOKEN_INDEX_PREFIX + userId;
+        Map<String, Object> tokens = redisService.hashGetAll(key);
+        for (Object token : tokens.values()) {
+            ParsedToken refresh = parseQuietly(token);
+            if (refresh != null) {
+                blacklistToken(refresh.jti(), refresh.expiresAt());
+            }
+        }
+        redisService.delete(key);
+        log.info("用户全部设备登出成功: {}, 设备数: {}", userId, tokens.size());
     }
     
-    private User findUserByIdentifier(String identifier) {
-        return userRepository.findByUsername(identifier)
-                .orElse(userRepository.findByEmail(identifier).orElse(null));
+    @Override
+    public List<DeviceSessionDTO> listDevices(Long userId) {
+        String key = REFRESH_TOKEN_INDEX_PREFIX + userId;
+        List<DeviceSessionDTO> devices = new ArrayList<>();
+        List<String> expiredDevices = new ArrayList<>();
+        redisService.hashGetAll(key).forEach((deviceId, token) -> {
+            ParsedToken refresh = parseQuietly(token);
+            if (refresh == null) {
+                expiredDevices.add(deviceId);
+                return;
+            }
+            devices.add(new DeviceSessionDTO(deviceId, refresh.ipAddress(), refresh.issuedAt(), refresh.expiresAt()));
+        });
+        if (!expiredDevices.isEmpty()) {
+            redisService.hashDelete(key, expiredDevices.toArray(new String[0]));
+        }
+        return devices;
     }
     
-    private boolean isLoginLocked(String identifier) {
-        String key = "login_attempts:" + identifier;
-        Integer attempts = redisService.get(key, Integer.class);
-        return attempts != null && attempts >= 5;
+    private boolean userExists(String username, String email) {
+        return userRepository.existsByUsername(username) || userRepository.existsByEmail(email);
     }
     
-    private void recordFailedLogin(String identifier) {
-        String key = "login_attempts:" + identifier;
-        Integer attempts = redisService.get(key, Integer.class);
-        attempts = attempts == null ? 1 : attempts + 1;
-        redisService.set(key, attempts, 30 * 60);
+    private void storeRefreshToken(Long userId, String refreshToken, String deviceId) {
+        String key = REFRESH_TOKEN_INDEX_PREFIX + userId;
+        redisService.hashPut(key, deviceId, refreshToken, REFRESH_TOKEN_TTL_SECONDS);
     }
     
-    private void clearFailedLogin(String identifier) {
-        String key = "login_attempts:" + identifier;
-        redisService.delete(key);
+    private void removeRefreshToken(ParsedToken refresh, String refreshToken) {
+        String key = REFRESH_TOKEN_INDEX_PREFIX + refresh.userId();
+        String deviceId = refresh.deviceId();
+        if (deviceId == null) {
+            return;
+        }
+        // 同一设备可能已重新登录，只移除与当前令牌匹配的条目
+        String stored = redisService.hashGet(key, deviceId, String.class);
+        if (refreshToken.equals(stored)) {
+            redisService.hashDelete(key, deviceId);
+        }
     }
     
-    private void storeRefreshToken(Long userId, String refreshToken, String deviceId) {
-        String key = "refresh_token:" + userId + ":" + deviceId;
-        redisService.set(key, refreshToken, 90 * 24 * 60 * 60);
+    /**
+     * 哈希强度低于目标配置时异步重新计算并更新，不影响本次登录响应；线程池繁忙时留待下次登录
+     */
+    private void rehashIfNeeded(UserWithRoles user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (!passwordHashingService.needsRehash(currentHash)) {
+            return;
+        }
+        try {
+            passwordHashingService.encodeAsync(rawPassword)
+                    .thenAccept(newHash -> userRepository.updatePassword(user.getId(), currentHash, newHash))
+                    .exceptionally(e -> {
+                        log.warn("密码哈希升级失败: {}", user.getId(), e);
+                        return null;
+                    });
+        } catch (BusinessException e) {
+            log.debug("密码哈希线程池繁忙，跳过哈希升级: {}", user.getId());
+        }
     }
     
-    private void removeRefreshToken(Long userId, String refreshToken) {
-        String pattern = "refresh_token:" + userId + ":*";
-        redisService.deleteByPattern(pattern);
+    private ParsedToken parseQuietly(Object token) {
+        if (!(token instanceof String tokenValue)) {
+            return null;
+        }
+        try {
+            return jwtUtil.parse(tokenValue);
+        } catch (Exception e) {
+            return null;
+        }
     }
     
     private boolean isTokenBlacklisted(String jti) {
@@ -184,6 +352,7 @@ public class AuthServiceImpl implements AuthService {
         long ttl = (expiration - System.currentTimeMillis()) / 1000;
         if (ttl > 0) {
             redisService.set(key, true, (int) ttl);
+            redisService.publish(TOKEN_REVOKED_CHANNEL, jti);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.petify.user.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.petify.user.service.LoginAttemptService;
+import com.petify.user.service.RedisService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class LoginAttemptServiceImpl implements LoginAttemptService {
+    
+    private static final String IDENTIFIER_KEY_PREFIX = "login_attempts:id:";
+    private static final String IP_KEY_PREFIX = "login_attempts:ip:";
+    
+    /**
+     * 滑动窗口限流：清理窗口外记录后，任一维度达到上限即返回{0, 需等待毫秒数}，
+     * 否则同时登记本次尝试并返回{1, 0}。检查与计数在一次调用内原子完成
+     */
+    private static final RedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local limits = { tonumber(ARGV[3]), tonumber(ARGV[4]) }
+            local wait = 0
+            for i = 1, 2 do
+                redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', now - window)
+                local count = redis.call('ZCARD', KEYS[i])
+                if count >= limits[i] then
+                    local pivot = redis.call('ZRANGE', KEYS[i], count - limits[i], count - limits[i], 'WITHSCORES')
+                    local remaining = tonumber(pivot[2]) + window - now
+                    if remaining > wait then
+                        wait = remaining
+                    end
+                end
+            end
+            if wait > 0 then
+                return { 0, wait }
+            end
+            for i = 1, 2 do
+                redis.call('ZADD', KEYS[i], now, ARGV[5])
+                redis.call('PEXPIRE', KEYS[i], window)
+            end
+            return { 1, 0 }
+            """, List.class);
+    
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            return redis.call('ZREM', KEYS[2], ARGV[1])
+            """, Long.class);
+    
+    private static final RedisScript<Long> CANCEL_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            return redis.call('ZREM', KEYS[2], ARGV[1])
+            """, Long.class);
+    
+    private final RedisService redisService;
+    
+    @Value("${petify.auth.login-attempt.window-seconds:1800}")
+    private long windowSeconds;
+    
+    @Value("${petify.auth.login-attempt.max-per-identifier:5}")
+    private int maxPerIdentifier;
+    
+    @Value("${petify.auth.login-attempt.max-per-ip:50}")
+    private int maxPerIp;
+    
+    @Override
+    public Attempt tryAcquire(String identifier, String ipAddress) {
+        String attemptId = IdUtil.fastSimpleUUID();
+        List<?> result = redisService.executeScript(ACQUIRE_SCRIPT,
+                List.of(IDENTIFIER_KEY_PREFIX + identifier, IP_KEY_PREFIX + ipAddress),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(windowSeconds * 1000),
+                String.valueOf(maxPerIdentifier),
+                String.valueOf(maxPerIp),
+                attemptId);
+        
+        boolean allowed = ((Number) result.get(0)).longValue() == 1;
+        long waitMillis = ((Number) result.get(1)).longValue();
+        return new Attempt(allowed, (waitMillis + 999) / 1000, attemptId);
+    }
+    
+    @Override
+    public void release(String identifier, String ipAddress, Attempt attempt) {
+        redisService.executeScript(RELEASE_SCRIPT,
+                List.of(IDENTIFIER_KEY_PREFIX + identifier, IP_KEY_PREFIX + ipAddress),
+                attempt.attemptId());
+    }
+    
+    @Override
+    public void cancel(String identifier, String ipAddress, Attempt attempt) {
+        redisService.executeScript(CANCEL_SCRIPT,
+                List.of(IDENTIFIER_KEY_PREFIX + identifier, IP_KEY_PREFIX + ipAddress),
+                attempt.attemptId());
+    }
+}
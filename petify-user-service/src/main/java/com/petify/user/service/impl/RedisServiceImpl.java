@@ -3,9 +3,13 @@ package com.petify.user.service.impl;
 import com.petify.user.service.RedisService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -13,6 +17,7 @@ import java.util.concurrent.TimeUnit;
 public class RedisServiceImpl implements RedisService {
     
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
     
     @Override
     public void set(String key, Object value, int expireSeconds) {
@@ -29,21 +34,61 @@ public class RedisServiceImpl implements RedisService {
         return (T) value;
     }
     
+    @Override
+    public void setString(String key, String value, int expireSeconds) {
+        stringRedisTemplate.opsForValue().set(key, value, expireSeconds, TimeUnit.SECONDS);
+    }
+    
+    @Override
+    public String getString(String key) {
+        return stringRedisTemplate.opsForValue().get(key);
+    }
+    
     @Override
     public void delete(String key) {
         redisTemplate.delete(key);
     }
     
     @Override
-    public void deleteByPattern(String pattern) {
-        Set<String> keys = redisTemplate.keys(pattern);
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+    public void hashPut(String key, String field, Object value, int expireSeconds) {
+        redisTemplate.opsForHash().put(key, field, value);
+        redisTemplate.expire(key, expireSeconds, TimeUnit.SECONDS);
+    }
+    
+    @Override
+    public <T> T hashGet(String key, String field, Class<T> type) {
+        Object value = redisTemplate.opsForHash().get(key, field);
+        if (value == null) {
+            return null;
         }
+        return type.cast(value);
+    }
+    
+    @Override
+    public Map<String, Object> hashGetAll(String key) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
+        Map<String, Object> result = new HashMap<>(entries.size());
+        entries.forEach((field, value) -> result.put(String.valueOf(field), value));
+        return result;
+    }
+    
+    @Override
+    public void hashDelete(String key, String... fields) {
+        redisTemplate.opsForHash().delete(key, (Object[]) fields);
     }
     
     @Override
     public boolean hasKey(String key) {
         return Boolean.TRUE.equals(redisTemplate.hasKey(key));
     }
+    
+    @Override
+    public void publish(String channel, String message) {
+        stringRedisTemplate.convertAndSend(channel, message);
+    }
+    
+    @Override
+    public <T> T executeScript(RedisScript<T> script, List<String> keys, String... args) {
+        return stringRedisTemplate.execute(script, keys, (Object[]) args);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.petify.user.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.petify.user.dto.UserSecuritySnapshot;
+import com.petify.user.repository.UserRepository;
+import com.petify.user.service.RedisService;
+import com.petify.user.service.UserSecurityCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 用户安全快照两级缓存
+ * L1为进程内Caffeine，L2为Redis，均未命中时查询数据库；同一用户的并发加载由Caffeine合并为一次。
+ * 变更时删除L2并通过Redis Pub/Sub通知所有实例清除L1
+ */
+@Slf4j
+@Service
+public class UserSecurityCacheServiceImpl implements UserSecurityCacheService, MessageListener {
+    
+    private static final String KEY_PREFIX = "user_security:";
+    private static final String INVALIDATION_CHANNEL = "user_security:invalidate";
+    
+    private final UserRepository userRepository;
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final LoadingCache<Long, UserSecuritySnapshot> localCache;
+    private final int redisTtlSeconds;
+    
+    public UserSecurityCacheServiceImpl(UserRepository userRepository,
+                                        RedisService redisService,
+                                        ObjectMapper objectMapper,
+                                        RedisMessageListenerContainer listenerContainer,
+                                        @Value("${petify.cache.user-security.local-max-size:10000}") long localMaxSize,
+                                        @Value("${petify.cache.user-security.local-ttl:5m}") Duration localTtl,
+                                        @Value("${petify.cache.user-security.redis-ttl-seconds:1800}") int redisTtlSeconds) {
+        this.userRepository = userRepository;
+        this.redisService = redisService;
+        this.objectMapper = objectMapper;
+        this.redisTtlSeconds = redisTtlSeconds;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build(this::load);
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+    
+    @Override
+    public Optional<UserSecuritySnapshot> get(Long userId) {
+        return Optional.ofNullable(localCache.get(userId));
+    }
+    
+    @Override
+    public void evict(Long userId) {
+        redisService.delete(KEY_PREFIX + userId);
+        localCache.invalidate(userId);
+        redisService.publish(INVALIDATION_CHANNEL, String.valueOf(userId));
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            localCache.invalidate(Long.valueOf(body));
+        } catch (NumberFormatException e) {
+            log.warn("无效的用户缓存失效消息: {}", body);
+        }
+    }
+    
+    private UserSecuritySnapshot load(Long userId) {
+        String key = KEY_PREFIX + userId;
+        String cached = redisService.getString(key);
+        if (cached != null) {
+            try {
+                return objectMapper.readValue(cached, UserSecuritySnapshot.class);
+            } catch (JsonProcessingException e) {
+                log.warn("用户安全快照反序列化失败: {}", userId);
+            }
+        }
+        
+        UserSecuritySnapshot snapshot = userRepository.findWithRolesById(userId)
+                .map(user -> new UserSecuritySnapshot(user.getId(), user.getUsername(), user.getStatus(), user.getRoleList()))
+                .orElse(null);
+        if (snapshot != null) {
+            try {
+                redisService.setString(key, objectMapper.writeValueAsString(snapshot), redisTtlSeconds);
+            } catch (JsonProcessingException e) {
+                log.warn("用户安全快照序列化失败: {}", userId);
+            }
+        }
+        return snapshot;
+    }
+}
@@ -1,15 +1,34 @@
 package com.petify.user.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.petify.common.exception.BusinessException;
+import com.petify.user.dto.CursorPageDTO;
 import com.petify.user.dto.LoginResponseDTO;
+import com.petify.user.dto.UserSummaryDTO;
 import com.petify.user.entity.User;
 import com.petify.user.repository.UserRepository;
 import com.petify.user.repository.UserRoleRepository;
+import com.petify.user.service.UserSecurityCacheService;
 import com.petify.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
 
 @Service
@@ -17,8 +36,16 @@ import java.util.List;
 @Slf4j
 public class UserServiceImpl implements UserService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final String EXPORT_SQL =
+            "SELECT id, username, email, phone, real_name, status, created_at FROM users ORDER BY id";
+    
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
+    private final UserSecurityCacheService userSecurityCacheService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
     
     @Override
     public LoginResponseDTO.UserInfoDTO getUserInfo(Long userId) {
@@ -47,11 +74,74 @@ public class UserServiceImpl implements UserService {
         existingUser.setAvatarUrl(updateRequest.getAvatarUrl());
         
         userRepository.save(existingUser);
+        userSecurityCacheService.evict(userId);
         log.info("用户资料更新成功: {}", userId);
     }
     
     @Override
-    public Object getAllUsers() {
-        return userRepository.findAll();
+    public CursorPageDTO<UserSummaryDTO> listUsers(Long afterId, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long cursor = afterId != null ? afterId : 0L;
+        
+        // 多取一条用于判断是否还有下一页
+        List<UserSummaryDTO> users = userRepository.findSummariesAfter(cursor, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+        Long nextCursor = hasMore ? users.get(users.size() - 1).getId() : null;
+        return new CursorPageDTO<>(users, nextCursor, hasMore);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream outputStream) throws IOException {
+        // 每行一个JSON对象；不关闭Servlet输出流，只按批刷新
+        ObjectWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        int[] rows = {0};
+        
+        try (SequenceWriter sequence = writer.writeValues(outputStream)) {
+            // PostgreSQL仅在事务内且设置fetchSize时使用服务端游标分批读取
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    sequence.write(toSummary(rs));
+                    if (++rows[0] % EXPORT_FETCH_SIZE == 0) {
+                        sequence.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        // 分隔符只写在记录之间，补上最后一行的换行
+        if (rows[0] > 0) {
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+        log.info("用户数据导出完成, 导出数量: {}", rows[0]);
+    }
+    
+    private static UserSummaryDTO toSummary(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new UserSummaryDTO(
+                rs.getLong("id"),
+                rs.getString("username"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("real_name"),
+                rs.getObject("status") != null ? rs.getShort("status") : null,
+                createdAt != null ? createdAt.toLocalDateTime() : null
+        );
     }
 }
\ No newline at end of file
@@ -2,11 +2,12 @@ package com.petify.user.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -28,8 +29,16 @@ public class JwtUtil {
     @Value("${petify.jwt.issuer:petify-platform}")
     private String issuer;
     
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private SecretKey signingKey;
+    
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
     
     public String generateAccessToken(Long userId, String username, List<String> roles) {
@@ -45,7 +54,7 @@ public class JwtUtil {
                 .claim("username", username)
                 .claim("roles", roles)
                 .claim("type", "access")
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
@@ -62,17 +71,13 @@ public class JwtUtil {
                 .claim("deviceId", deviceId)
                 .claim("ipAddress", ipAddress)
                 .claim("type", "refresh")
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
     public Claims parseToken(String token) {
         try {
-            return Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException e) {
             log.warn("JWT token is expired: {}", e.getMessage());
             throw e;
@@ -91,6 +96,13 @@ public class JwtUtil {
         }
     }
     
+    /**
+     * 一次解析、验签，返回不可变的Token视图，避免对同一Token重复解析
+     */
+    public ParsedToken parse(String token) {
+        return ParsedToken.from(parseToken(token));
+    }
+    
     public boolean isTokenValid(String token) {
         try {
             parseToken(token);
@@ -0,0 +1,40 @@
+package com.petify.user.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 已验签的JWT视图 - 不可变，由{@link JwtUtil#parse(String)}一次解析生成
+ */
+public record ParsedToken(
+        Long userId,
+        String jti,
+        String type,
+        String username,
+        List<String> roles,
+        String deviceId,
+        String ipAddress,
+        long issuedAt,
+        long expiresAt
+) {
+    
+    @SuppressWarnings("unchecked")
+    static ParsedToken from(Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new ParsedToken(
+                Long.valueOf(claims.getSubject()),
+                claims.getId(),
+                claims.get("type", String.class),
+                claims.get("username", String.class),
+                roles != null ? List.copyOf(roles) : List.of(),
+                claims.get("deviceId", String.class),
+                claims.get("ipAddress", String.class),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : 0L
+        );
+    }
+}